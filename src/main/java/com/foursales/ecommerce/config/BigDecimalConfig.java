@@ -5,19 +5,18 @@ import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.foursales.ecommerce.util.Money;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
+import java.math.RoundingMode;
 
 @Configuration
 public class BigDecimalConfig {
 
-    private static final DecimalFormat decimalFormat = new DecimalFormat("#0.00");
-
     static class BigDecimalSerializer extends StdScalarSerializer<BigDecimal> {
 
         protected BigDecimalSerializer() {
@@ -26,7 +25,7 @@ public class BigDecimalConfig {
 
         @Override
         public void serialize(BigDecimal value, JsonGenerator gen, SerializerProvider provider) throws IOException {
-            gen.writeString(decimalFormat.format(value));
+            gen.writeString(value.setScale(Money.SCALE, RoundingMode.HALF_EVEN).toPlainString());
         }
     }
 
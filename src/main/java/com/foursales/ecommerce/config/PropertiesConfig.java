@@ -1,7 +1,9 @@
 package com.foursales.ecommerce.config;
 
+import com.foursales.ecommerce.enums.InventoryMode;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -10,6 +12,7 @@ import org.springframework.validation.annotation.Validated;
 
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
 
 @Data
 @Validated
@@ -25,6 +28,34 @@ public class PropertiesConfig {
     @NestedConfigurationProperty
     private Jwt jwt;
 
+    @NotNull
+    @NestedConfigurationProperty
+    private Reservation reservation;
+
+    @NotNull
+    @NestedConfigurationProperty
+    private Inventory inventory;
+
+    @NotNull
+    @NestedConfigurationProperty
+    private Idempotency idempotency;
+
+    @NotNull
+    @NestedConfigurationProperty
+    private Payment payment;
+
+    @NotNull
+    @NestedConfigurationProperty
+    private OrderExpiry orderExpiry;
+
+    @NotNull
+    @NestedConfigurationProperty
+    private ProductNameBackfill productNameBackfill;
+
+    @NotNull
+    @NestedConfigurationProperty
+    private ProductCache productCache;
+
     @Data
     @Validated
     public static class Jwt {
@@ -40,6 +71,111 @@ public class PropertiesConfig {
         private RSAPublicKey publicKey;
     }
 
+    @Data
+    @Validated
+    public static class Reservation {
+        @NotNull
+        private Duration ttl;
+        @NotNull
+        private Duration sweepInterval;
+        @Positive
+        private int batchSize;
+    }
+
+    @Data
+    @Validated
+    public static class Inventory {
+        @NotNull
+        private InventoryMode mode;
+        @NotNull
+        private Duration flushInterval;
+        @Positive
+        private int flushBatchSize;
+        @Positive
+        private int writerPartitions;
+        @Positive
+        private int writerBatchSize;
+        @NotNull
+        private Duration writerTimeout;
+    }
+
+    @Data
+    @Validated
+    public static class Idempotency {
+        @NotNull
+        private Duration ttl;
+        @Positive
+        private long maxEntries;
+        @NotNull
+        private Duration waitTimeout;
+        private boolean persistent;
+        @NotNull
+        private Duration cleanupInterval;
+    }
+
+    @Data
+    @Validated
+    public static class Payment {
+        private boolean async;
+        @Positive
+        private int queueCapacity;
+        @Positive
+        private int workers;
+        @Positive
+        private int batchSize;
+        @NotNull
+        private Duration statusTtl;
+        @Positive
+        private long statusMaxEntries;
+        @NotNull
+        private Duration shutdownTimeout;
+        @NotNull
+        @NestedConfigurationProperty
+        private Retry retry;
+    }
+
+    @Data
+    @Validated
+    public static class Retry {
+        @Positive
+        private int maxAttempts;
+        @Positive
+        private long initialDelay;
+        @Positive
+        private long maxDelay;
+        @Positive
+        private double multiplier;
+    }
+
+    @Data
+    @Validated
+    public static class OrderExpiry {
+        @NotNull
+        private Duration maxAge;
+        @NotNull
+        private Duration sweepInterval;
+        @Positive
+        private int batchSize;
+    }
+
+    @Data
+    @Validated
+    public static class ProductNameBackfill {
+        @NotNull
+        private Duration interval;
+        @Positive
+        private int batchSize;
+    }
+
+    @Data
+    @Validated
+    public static class ProductCache {
+        @Positive
+        private long maximumSize;
+        @NotNull
+        private Duration ttl;
+    }
+
     @Data
     @Validated
     public static class Swagger {
@@ -0,0 +1,7 @@
+package com.foursales.ecommerce.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record OrderCursor(LocalDateTime createdAt, UUID id) {
+}
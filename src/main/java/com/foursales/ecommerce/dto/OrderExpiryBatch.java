@@ -0,0 +1,5 @@
+package com.foursales.ecommerce.dto;
+
+/** {@code expired} counts the scanned orders that were still PENDING when canceled. */
+public record OrderExpiryBatch(int scanned, int expired) {
+}
@@ -0,0 +1,11 @@
+package com.foursales.ecommerce.dto;
+
+import com.foursales.ecommerce.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record OrderSearchFilter(OrderStatus status, UUID userId, LocalDateTime createdFrom, LocalDateTime createdTo,
+                                BigDecimal minTotal, BigDecimal maxTotal) {
+}
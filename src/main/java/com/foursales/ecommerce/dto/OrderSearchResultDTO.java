@@ -0,0 +1,11 @@
+package com.foursales.ecommerce.dto;
+
+import com.foursales.ecommerce.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record OrderSearchResultDTO(UUID id, UUID userId, OrderStatus status, BigDecimal totalPrice,
+                                   LocalDateTime createdAt) {
+}
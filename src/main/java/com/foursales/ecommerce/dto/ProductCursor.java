@@ -0,0 +1,6 @@
+package com.foursales.ecommerce.dto;
+
+import java.util.UUID;
+
+public record ProductCursor(String name, UUID id) {
+}
@@ -0,0 +1,6 @@
+package com.foursales.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+public record ProductFilter(String category, BigDecimal minPrice, BigDecimal maxPrice) {
+}
@@ -0,0 +1,11 @@
+package com.foursales.ecommerce.dto;
+
+import com.foursales.ecommerce.enums.ProductStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ProductSnapshot(UUID id, String name, String description, String category, BigDecimal price,
+                              Integer stockQuantity, ProductStatus status, Long version, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,9 @@
+package com.foursales.ecommerce.dto;
+
+import java.util.UUID;
+
+public interface ProductStockDTO {
+    UUID getId();
+
+    Integer getStockQuantity();
+}
@@ -0,0 +1,11 @@
+package com.foursales.ecommerce.dto;
+
+import java.util.UUID;
+
+public interface ProductStockVersionDTO {
+    UUID getId();
+
+    Integer getStockQuantity();
+
+    Long getVersion();
+}
@@ -0,0 +1,9 @@
+package com.foursales.ecommerce.dto;
+
+import java.util.UUID;
+
+public interface ReservedQuantityDTO {
+    UUID getProductId();
+
+    Long getQuantity();
+}
@@ -1,5 +1,6 @@
 package com.foursales.ecommerce.entity;
 
+import com.foursales.ecommerce.entity.id.UuidV7;
 import com.foursales.ecommerce.enums.OrderStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -23,7 +24,7 @@ import java.util.UUID;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(optional = false)
@@ -1,5 +1,6 @@
 package com.foursales.ecommerce.entity;
 
+import com.foursales.ecommerce.entity.id.UuidV7;
 import com.foursales.ecommerce.enums.ProductStatus;
 import com.foursales.ecommerce.resource.request.UpdateProductRequest;
 import jakarta.persistence.*;
@@ -9,6 +10,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.SourceType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -26,7 +28,7 @@ import java.util.UUID;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "name", nullable = false)
@@ -54,11 +56,15 @@ public class Product {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
-    @UpdateTimestamp
+    @UpdateTimestamp(source = SourceType.DB)
     @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public void updateFrom(UpdateProductRequest request) {
         Optional.ofNullable(request.name()).ifPresent(this::setName);
         Optional.ofNullable(request.description()).ifPresent(this::setDescription);
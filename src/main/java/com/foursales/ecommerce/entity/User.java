@@ -1,5 +1,6 @@
 package com.foursales.ecommerce.entity;
 
+import com.foursales.ecommerce.entity.id.UuidV7;
 import com.foursales.ecommerce.enums.Role;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -23,7 +24,7 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "email", unique = true, nullable = false)
@@ -0,0 +1,58 @@
+package com.foursales.ecommerce.entity.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** RFC 9562 version 7 UUIDs, strictly increasing within a millisecond. */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC_9562 = 0x8000000000000000L;
+
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+    private static final ThreadLocal<SecureRandom> random = ThreadLocal.withInitial(SecureRandom::new);
+
+    public static UUID nextUuid() {
+        long timestampAndCounter = nextTimestampAndCounter(System.currentTimeMillis());
+
+        long mostSigBits = (timestampAndCounter >>> COUNTER_BITS) << 16
+                | VERSION_7
+                | (timestampAndCounter & COUNTER_MASK);
+        long leastSigBits = (random.get().nextLong() & VARIANT_MASK) | VARIANT_RFC_9562;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static long nextTimestampAndCounter(long now) {
+        long current;
+        long next;
+        do {
+            current = lastTimestampAndCounter.get();
+            next = now > current >>> COUNTER_BITS
+                    ? now << COUNTER_BITS
+                    : current + 1;
+        } while (!lastTimestampAndCounter.compareAndSet(current, next));
+        return next;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return nextUuid();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
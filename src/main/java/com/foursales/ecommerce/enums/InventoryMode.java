@@ -0,0 +1,8 @@
+package com.foursales.ecommerce.enums;
+
+public enum InventoryMode {
+    DATABASE,
+    IN_MEMORY,
+    OPTIMISTIC,
+    SINGLE_WRITER
+}
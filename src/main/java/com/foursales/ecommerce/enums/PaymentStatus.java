@@ -0,0 +1,7 @@
+package com.foursales.ecommerce.enums;
+
+public enum PaymentStatus {
+    QUEUED,
+    PAID,
+    FAILED
+}
@@ -3,6 +3,7 @@ package com.foursales.ecommerce.exceptions;
 import com.foursales.ecommerce.resource.response.ErrorResponse;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -65,6 +66,30 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(request, e.getMessage(), HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException e, HttpServletRequest request) {
+
+        return buildErrorResponse(request, "Resource was modified concurrently, please retry", HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleIdempotencyKeyInProgressException(
+            IdempotencyKeyInProgressException e, HttpServletRequest request) {
+
+        return buildErrorResponse(request, e.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PaymentQueueFullException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ErrorResponse handlePaymentQueueFullException(
+            PaymentQueueFullException e, HttpServletRequest request) {
+
+        return buildErrorResponse(request, e.getMessage(), HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     @ExceptionHandler(BusinessException.class)
     @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
     public ErrorResponse handleIllegalStateException(
@@ -0,0 +1,18 @@
+package com.foursales.ecommerce.exceptions;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+public class InsufficientStockException extends BusinessException {
+
+    private final UUID productId;
+    private final int available;
+
+    public InsufficientStockException(UUID productId, int available) {
+        super(String.format("Insufficient stock for product '%s': available only %d", productId, available));
+        this.productId = productId;
+        this.available = available;
+    }
+}
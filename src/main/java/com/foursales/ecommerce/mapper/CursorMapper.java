@@ -0,0 +1,54 @@
+package com.foursales.ecommerce.mapper;
+
+import com.foursales.ecommerce.dto.OrderCursor;
+import com.foursales.ecommerce.dto.ProductCursor;
+import com.foursales.ecommerce.exceptions.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+public class CursorMapper {
+
+    private static final String SEPARATOR = "|";
+
+    public static String toCursor(LocalDateTime createdAt, UUID id) {
+        return encode(createdAt + SEPARATOR + id);
+    }
+
+    public static String toCursor(String name, UUID id) {
+        return encode(name + SEPARATOR + id);
+    }
+
+    public static OrderCursor toOrderCursor(String cursor) {
+        try {
+            String value = decode(cursor);
+            int separator = value.indexOf(SEPARATOR);
+            return new OrderCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /** Product names may contain the separator, so the id is taken from the last one. */
+    public static ProductCursor toProductCursor(String cursor) {
+        try {
+            String value = decode(cursor);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new ProductCursor(value.substring(0, separator), UUID.fromString(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,39 @@
+package com.foursales.ecommerce.mapper;
+
+import com.foursales.ecommerce.entity.Order;
+import com.foursales.ecommerce.entity.OrderHistoryView;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
+import com.foursales.ecommerce.resource.response.OrderResponse;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class OrderHistoryMapper {
+
+    public static OrderHistoryView toEntity(Order order, String document) {
+        return OrderHistoryView.builder()
+                .orderId(order.getId())
+                .userId(order.getUser().getId())
+                .status(order.getStatus())
+                .createdAt(order.getCreatedAt())
+                .document(document)
+                .build();
+    }
+
+    public static CursorPageResponse<OrderResponse> toCursorPageResponse(List<OrderHistoryView> views, int size,
+                                                                         Function<OrderHistoryView, OrderResponse> reader) {
+        boolean hasNext = views.size() > size;
+        List<OrderHistoryView> page = hasNext ? views.subList(0, size) : views;
+        OrderHistoryView last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageResponse.<OrderResponse>builder()
+                .content(page.stream()
+                        .map(reader)
+                        .collect(Collectors.toList()))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorMapper.toCursor(last.getCreatedAt(), last.getOrderId()) : null)
+                .build();
+    }
+}
@@ -1,22 +1,46 @@
 package com.foursales.ecommerce.mapper;
 
+import com.foursales.ecommerce.dto.OrderExportRowDTO;
+import com.foursales.ecommerce.dto.ProductSnapshot;
 import com.foursales.ecommerce.entity.OrderItem;
 import com.foursales.ecommerce.entity.Product;
+import com.foursales.ecommerce.resource.request.OrderItemRequest;
 import com.foursales.ecommerce.resource.response.OrderItemResponse;
+import com.foursales.ecommerce.util.Money;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 public class OrderItemMapper {
 
-    public static OrderItem toEntity(Product product, Integer quantity) {
+    public static OrderItem toEntity(Product product, ProductSnapshot snapshot, Integer quantity, long priceCents) {
         return OrderItem.builder()
                 .product(product)
+                .productName(snapshot.name())
                 .quantity(quantity)
-                .price(product.getPrice())
+                .price(Money.toDecimal(priceCents))
                 .build();
     }
 
+    public static Map<UUID, Integer> toQuantitiesByProduct(List<OrderItem> orderItems) {
+        return orderItems.stream()
+                .collect(Collectors.groupingBy(item -> item.getProduct().getId(), TreeMap::new,
+                        Collectors.summingInt(OrderItem::getQuantity)));
+    }
+
+    /** Merges repeated lines of a product, keeping the order in which products first appear. */
+    public static Map<UUID, Integer> toRequestedQuantitiesByProduct(List<OrderItemRequest> itemRequests) {
+        Map<UUID, Integer> quantitiesByProduct = new LinkedHashMap<>();
+        for (OrderItemRequest itemRequest : itemRequests) {
+            quantitiesByProduct.merge(itemRequest.productId(), itemRequest.quantity(), Math::addExact);
+        }
+        return quantitiesByProduct;
+    }
+
     public static List<OrderItemResponse> toListResponse(List<OrderItem> orderItems) {
         return orderItems.stream()
                 .map(OrderItemMapper::toResponse)
@@ -26,9 +50,18 @@ public class OrderItemMapper {
     public static OrderItemResponse toResponse(OrderItem orderItem) {
         return OrderItemResponse.builder()
                 .productId(orderItem.getProduct().getId())
-                .productName(orderItem.getProduct().getName())
+                .productName(orderItem.getProductName())
                 .quantity(orderItem.getQuantity())
                 .price(orderItem.getPrice())
                 .build();
     }
+
+    public static OrderItemResponse toResponse(OrderExportRowDTO row) {
+        return OrderItemResponse.builder()
+                .productId(row.productId())
+                .productName(row.productName())
+                .quantity(row.quantity())
+                .price(row.price())
+                .build();
+    }
 }
@@ -1,17 +1,26 @@
 package com.foursales.ecommerce.mapper;
 
+import com.foursales.ecommerce.dto.OrderExportRowDTO;
+import com.foursales.ecommerce.dto.OrderSearchResultDTO;
 import com.foursales.ecommerce.entity.Order;
 import com.foursales.ecommerce.entity.User;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
+import com.foursales.ecommerce.resource.response.OrderBatchResultResponse;
+import com.foursales.ecommerce.resource.response.OrderItemResponse;
 import com.foursales.ecommerce.resource.response.OrderResponse;
+import com.foursales.ecommerce.util.Money;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public class OrderMapper {
 
-    public static Order toEntity(User user, BigDecimal totalPrice) {
+    public static Order toEntity(User user, long totalCents) {
         return Order.builder()
                 .user(user)
-                .totalPrice(totalPrice)
+                .totalPrice(Money.toDecimal(totalCents))
                 .build();
     }
 
@@ -23,4 +32,54 @@ public class OrderMapper {
                 .items(OrderItemMapper.toListResponse(order.getItems()))
                 .build();
     }
+
+    public static OrderResponse toResponse(OrderExportRowDTO order, List<OrderItemResponse> items) {
+        return OrderResponse.builder()
+                .id(order.orderId())
+                .status(order.status())
+                .totalPrice(order.totalPrice())
+                .items(items)
+                .build();
+    }
+
+    public static List<OrderBatchResultResponse> toBatchResponse(List<Order> orders, Map<Integer, String> errorsByIndex) {
+        List<OrderBatchResultResponse> results = new ArrayList<>(orders.size());
+        for (int index = 0; index < orders.size(); index++) {
+            Order order = orders.get(index);
+            results.add(OrderBatchResultResponse.builder()
+                    .index(index)
+                    .order(order == null ? null : toResponse(order))
+                    .error(errorsByIndex.get(index))
+                    .build());
+        }
+        return results;
+    }
+
+    public static List<OrderBatchResultResponse> toPaymentBatchResponse(List<UUID> orderIds, Map<UUID, Order> ordersById,
+                                                                        Map<UUID, String> errorsByOrderId) {
+        List<OrderBatchResultResponse> results = new ArrayList<>(orderIds.size());
+        for (int index = 0; index < orderIds.size(); index++) {
+            UUID orderId = orderIds.get(index);
+            Order order = ordersById.get(orderId);
+            results.add(OrderBatchResultResponse.builder()
+                    .index(index)
+                    .order(order == null ? null : toResponse(order))
+                    .error(errorsByOrderId.get(orderId))
+                    .build());
+        }
+        return results;
+    }
+
+    public static CursorPageResponse<OrderSearchResultDTO> toSearchPageResponse(List<OrderSearchResultDTO> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<OrderSearchResultDTO> page = hasNext ? rows.subList(0, size) : rows;
+        OrderSearchResultDTO last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageResponse.<OrderSearchResultDTO>builder()
+                .content(page)
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorMapper.toCursor(last.createdAt(), last.id()) : null)
+                .build();
+    }
 }
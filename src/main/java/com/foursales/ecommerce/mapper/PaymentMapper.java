@@ -0,0 +1,17 @@
+package com.foursales.ecommerce.mapper;
+
+import com.foursales.ecommerce.enums.PaymentStatus;
+import com.foursales.ecommerce.resource.response.PaymentStatusResponse;
+
+import java.util.UUID;
+
+public class PaymentMapper {
+
+    public static PaymentStatusResponse toResponse(UUID orderId, PaymentStatus status, String error) {
+        return PaymentStatusResponse.builder()
+                .orderId(orderId)
+                .status(status)
+                .error(error)
+                .build();
+    }
+}
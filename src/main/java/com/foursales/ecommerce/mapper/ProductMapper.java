@@ -1,9 +1,16 @@
 package com.foursales.ecommerce.mapper;
 
+import com.foursales.ecommerce.dto.ProductSnapshot;
 import com.foursales.ecommerce.entity.Product;
 import com.foursales.ecommerce.resource.request.CreateProductRequest;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
 import com.foursales.ecommerce.resource.response.ProductResponse;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class ProductMapper {
 
     public static Product toEntity(CreateProductRequest request) {
@@ -26,4 +33,54 @@ public class ProductMapper {
                 .stockQuantity(product.getStockQuantity())
                 .build();
     }
+
+    public static ProductResponse toResponse(ProductSnapshot product) {
+        return ProductResponse.builder()
+                .id(product.id())
+                .name(product.name())
+                .description(product.description())
+                .category(product.category())
+                .price(product.price())
+                .stockQuantity(product.stockQuantity())
+                .build();
+    }
+
+    public static ProductSnapshot toSnapshot(Product product) {
+        return new ProductSnapshot(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getCategory(),
+                product.getPrice(),
+                product.getStockQuantity(),
+                product.getStatus(),
+                product.getVersion(),
+                product.getUpdatedAt());
+    }
+
+    public static CursorPageResponse<ProductResponse> toCursorPageResponse(List<Product> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<Product> page = hasNext ? rows.subList(0, size) : rows;
+        Product last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageResponse.<ProductResponse>builder()
+                .content(page.stream().map(ProductMapper::toResponse).toList())
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? CursorMapper.toCursor(last.getName(), last.getId()) : null)
+                .build();
+    }
+
+    /** The version breaks ties between writes on the same timestamp. */
+    public static String toETag(ProductSnapshot product) {
+        return "\"" + product.version() + "-" + toMicros(product.updatedAt()) + "\"";
+    }
+
+    public static String toCatalogETag(long catalogVersion) {
+        return "\"catalog-" + catalogVersion + "\"";
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return TimeUnit.SECONDS.toMicros(dateTime.toEpochSecond(ZoneOffset.UTC)) + dateTime.getNano() / 1_000;
+    }
 }
@@ -0,0 +1,12 @@
+package com.foursales.ecommerce.repository;
+
+import com.foursales.ecommerce.dto.OrderExportRowDTO;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface OrderExportRepository {
+
+    /** One row per order item, with the rows of an order kept contiguous. */
+    Stream<OrderExportRowDTO> streamExportRowsByUserId(UUID userId);
+}
@@ -0,0 +1,46 @@
+package com.foursales.ecommerce.repository;
+
+import com.foursales.ecommerce.dto.OrderExportRowDTO;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.AvailableHints;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class OrderExportRepositoryImpl implements OrderExportRepository {
+
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int FETCH_SIZE = 500;
+
+    private static final String EXPORT_ROWS_QUERY = """
+            SELECT new com.foursales.ecommerce.dto.OrderExportRowDTO(
+                o.id, o.status, o.totalPrice, o.createdAt, i.product.id, i.productName, i.quantity, i.price)
+            FROM Order o
+            LEFT JOIN o.items i
+            WHERE o.user.id = :userId
+            ORDER BY o.createdAt DESC, o.id DESC
+            """;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Stream<OrderExportRowDTO> streamExportRowsByUserId(UUID userId) {
+        return entityManager.createQuery(EXPORT_ROWS_QUERY, OrderExportRowDTO.class)
+                .setParameter("userId", userId)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize())
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private int fetchSize() {
+        boolean mysql = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof MySQLDialect;
+        return mysql ? MYSQL_STREAMING_FETCH_SIZE : FETCH_SIZE;
+    }
+}
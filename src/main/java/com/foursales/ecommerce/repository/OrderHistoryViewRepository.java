@@ -0,0 +1,43 @@
+package com.foursales.ecommerce.repository;
+
+import com.foursales.ecommerce.entity.OrderHistoryView;
+import com.foursales.ecommerce.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderHistoryViewRepository extends JpaRepository<OrderHistoryView, UUID> {
+
+    @Query("""
+            SELECT v
+            FROM OrderHistoryView v
+            WHERE v.userId = :userId
+            ORDER BY v.createdAt DESC, v.orderId DESC
+            """)
+    List<OrderHistoryView> findByUserId(UUID userId, Limit limit);
+
+    @Query("""
+            SELECT v
+            FROM OrderHistoryView v
+            WHERE v.userId = :userId
+              AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.orderId < :orderId))
+            ORDER BY v.createdAt DESC, v.orderId DESC
+            """)
+    List<OrderHistoryView> findByUserIdBefore(UUID userId, LocalDateTime createdAt, UUID orderId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE OrderHistoryView v SET v.status = :status WHERE v.orderId IN :orderIds")
+    int updateStatusByOrderIdIn(Collection<UUID> orderIds, OrderStatus status);
+
+    @Modifying
+    @Query("UPDATE OrderHistoryView v SET v.status = :newStatus WHERE v.orderId IN :orderIds AND v.status = :currentStatus")
+    int updateStatusByOrderIdIn(Collection<UUID> orderIds, OrderStatus currentStatus, OrderStatus newStatus);
+}
@@ -0,0 +1,28 @@
+package com.foursales.ecommerce.repository;
+
+import com.foursales.ecommerce.entity.OrderItem;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, UUID> {
+
+    @Query("SELECT i.id FROM OrderItem i WHERE i.productName IS NULL")
+    List<UUID> findIdsByProductNameIsNull(Limit limit);
+
+    /** Native so that items of inactive products still get their name. */
+    @Modifying
+    @Query(value = """
+            UPDATE order_items
+            SET product_name = (SELECT p.name FROM products p WHERE p.id = order_items.product_id)
+            WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int copyProductNames(Collection<UUID> ids);
+}
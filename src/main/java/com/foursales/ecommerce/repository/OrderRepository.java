@@ -4,19 +4,39 @@ import com.foursales.ecommerce.dto.MonthlyRevenueDTO;
 import com.foursales.ecommerce.dto.TopBuyerDTO;
 import com.foursales.ecommerce.dto.UserAverageTicketDTO;
 import com.foursales.ecommerce.entity.Order;
+import com.foursales.ecommerce.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderSearchRepository, OrderExportRepository {
 
     @EntityGraph(attributePaths = {"items", "items.product"})
-    List<Order> findAllByUserId(UUID userId);
+    List<Order> findAllByIdIn(Collection<UUID> ids);
+
+    @Query("""
+            SELECT o.id
+            FROM Order o
+            WHERE o.status = :status AND o.createdAt < :createdBefore
+            ORDER BY o.createdAt
+            """)
+    List<UUID> findIdsByStatusAndCreatedAtBefore(OrderStatus status, LocalDateTime createdBefore, Limit limit);
+
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids AND o.status = :status")
+    List<UUID> findIdsByIdInAndStatus(Collection<UUID> ids, OrderStatus status);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :newStatus WHERE o.id IN :ids AND o.status = :currentStatus")
+    int updateStatusByIdIn(Collection<UUID> ids, OrderStatus currentStatus, OrderStatus newStatus);
 
     @Query(value = """
                 SELECT
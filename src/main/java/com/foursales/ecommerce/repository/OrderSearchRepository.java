@@ -0,0 +1,12 @@
+package com.foursales.ecommerce.repository;
+
+import com.foursales.ecommerce.dto.OrderCursor;
+import com.foursales.ecommerce.dto.OrderSearchFilter;
+import com.foursales.ecommerce.dto.OrderSearchResultDTO;
+
+import java.util.List;
+
+public interface OrderSearchRepository {
+
+    List<OrderSearchResultDTO> searchOrders(OrderSearchFilter filter, OrderCursor cursor, int limit);
+}
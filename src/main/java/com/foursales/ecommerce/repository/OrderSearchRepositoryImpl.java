@@ -0,0 +1,71 @@
+package com.foursales.ecommerce.repository;
+
+import com.foursales.ecommerce.dto.OrderCursor;
+import com.foursales.ecommerce.dto.OrderSearchFilter;
+import com.foursales.ecommerce.dto.OrderSearchResultDTO;
+import com.foursales.ecommerce.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<OrderSearchResultDTO> searchOrders(OrderSearchFilter filter, OrderCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSearchResultDTO> query = cb.createQuery(OrderSearchResultDTO.class);
+        Root<Order> order = query.from(Order.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.status() != null) {
+            predicates.add(cb.equal(order.get("status"), filter.status()));
+        }
+        if (filter.userId() != null) {
+            predicates.add(cb.equal(order.get("user").get("id"), filter.userId()));
+        }
+        if (filter.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.<LocalDateTime>get("createdAt"), filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            predicates.add(cb.lessThan(order.<LocalDateTime>get("createdAt"), filter.createdTo()));
+        }
+        if (filter.minTotal() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.<BigDecimal>get("totalPrice"), filter.minTotal()));
+        }
+        if (filter.maxTotal() != null) {
+            predicates.add(cb.lessThanOrEqualTo(order.<BigDecimal>get("totalPrice"), filter.maxTotal()));
+        }
+        if (cursor != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(order.<LocalDateTime>get("createdAt"), cursor.createdAt()),
+                    cb.and(
+                            cb.equal(order.get("createdAt"), cursor.createdAt()),
+                            cb.lessThan(order.<UUID>get("id"), cursor.id()))));
+        }
+
+        query.select(cb.construct(OrderSearchResultDTO.class,
+                        order.get("id"),
+                        order.get("user").get("id"),
+                        order.get("status"),
+                        order.get("totalPrice"),
+                        order.get("createdAt")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(order.get("createdAt")), cb.desc(order.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,11 +1,75 @@
 package com.foursales.ecommerce.repository;
 
+import com.foursales.ecommerce.dto.ProductSnapshot;
+import com.foursales.ecommerce.dto.ProductStockDTO;
+import com.foursales.ecommerce.dto.ProductStockVersionDTO;
 import com.foursales.ecommerce.entity.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product>,
+        ProductStockRepository {
+
+    @Modifying
+    @Query("""
+            UPDATE Product p
+            SET p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1, p.updatedAt = CURRENT_TIMESTAMP
+            WHERE p.id = :id AND p.stockQuantity >= :quantity
+            """)
+    int decrementStock(UUID id, int quantity);
+
+    @Modifying
+    @Query("""
+            UPDATE Product p
+            SET p.stockQuantity = p.stockQuantity + :quantity, p.version = p.version + 1, p.updatedAt = CURRENT_TIMESTAMP
+            WHERE p.id = :id
+            """)
+    int incrementStock(UUID id, int quantity);
+
+    @Modifying
+    @Query("""
+            UPDATE Product p
+            SET p.stockQuantity = :stockQuantity, p.version = p.version + 1, p.updatedAt = CURRENT_TIMESTAMP
+            WHERE p.id = :id AND p.version = :version
+            """)
+    int updateStockIfVersionMatches(UUID id, long version, int stockQuantity);
+
+    @Query("SELECT p.id AS id, p.stockQuantity AS stockQuantity, p.version AS version FROM Product p WHERE p.id IN :ids")
+    List<ProductStockVersionDTO> findStockVersionsByIdIn(Collection<UUID> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id AS id, p.stockQuantity AS stockQuantity FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<ProductStockDTO> lockStockByIdIn(Collection<UUID> ids);
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockQuantityById(UUID id);
+
+    @Query("SELECT p.id AS id, p.stockQuantity AS stockQuantity FROM Product p")
+    List<ProductStockDTO> findAllStockQuantities();
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.foursales.ecommerce.dto.ProductSnapshot(
+                p.id, p.name, p.description, p.category, p.price, p.stockQuantity, p.status, p.version, p.updatedAt)
+            FROM Product p
+            """)
+    Stream<ProductSnapshot> streamSearchSnapshots();
 }
@@ -0,0 +1,50 @@
+package com.foursales.ecommerce.repository;
+
+import com.foursales.ecommerce.dto.ProductCursor;
+import com.foursales.ecommerce.dto.ProductFilter;
+import com.foursales.ecommerce.entity.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public final class ProductSpecifications {
+
+    /** The id breaks ties between products with the same name. */
+    public static final Sort KEYSET_ORDER = Sort.by("name", "id");
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductFilter filter) {
+        return Specification.where(hasCategory(filter.category()))
+                .and(priceAtLeast(filter.minPrice()))
+                .and(priceAtMost(filter.maxPrice()));
+    }
+
+    public static Specification<Product> hasCategory(String category) {
+        return category == null || category.isBlank()
+                ? null
+                : (root, query, cb) -> cb.equal(root.get("category"), category.strip());
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return minPrice == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return maxPrice == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    /** The redundant {@code name >=} bound lets the range scan start at the cursor. */
+    public static Specification<Product> after(ProductCursor cursor) {
+        return cursor == null ? null : (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("name"), cursor.name()),
+                cb.or(
+                        cb.greaterThan(root.get("name"), cursor.name()),
+                        cb.and(
+                                cb.equal(root.get("name"), cursor.name()),
+                                cb.greaterThan(root.<UUID>get("id"), cursor.id()))));
+    }
+}
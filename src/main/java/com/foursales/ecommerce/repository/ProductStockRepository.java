@@ -0,0 +1,9 @@
+package com.foursales.ecommerce.repository;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface ProductStockRepository {
+
+    void applyStockDeltas(Map<UUID, Integer> deltasByProduct, int batchSize);
+}
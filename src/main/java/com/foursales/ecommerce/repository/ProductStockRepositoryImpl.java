@@ -0,0 +1,37 @@
+package com.foursales.ecommerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String APPLY_STOCK_DELTA_SQL = """
+            UPDATE products
+            SET stock_quantity = stock_quantity - ?, version = version + 1, updated_at = CURRENT_TIMESTAMP(6)
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void applyStockDeltas(Map<UUID, Integer> deltasByProduct, int batchSize) {
+        jdbcTemplate.batchUpdate(APPLY_STOCK_DELTA_SQL, new ArrayList<>(deltasByProduct.entrySet()), batchSize,
+                (ps, entry) -> {
+                    ps.setInt(1, entry.getValue());
+                    ps.setBytes(2, toBytes(entry.getKey()));
+                });
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
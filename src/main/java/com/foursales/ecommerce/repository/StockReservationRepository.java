@@ -0,0 +1,36 @@
+package com.foursales.ecommerce.repository;
+
+import com.foursales.ecommerce.dto.ReservedQuantityDTO;
+import com.foursales.ecommerce.entity.StockReservation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+    List<StockReservation> findAllByOrderId(UUID orderId);
+
+    List<StockReservation> findAllByOrderIdIn(Collection<UUID> orderIds);
+
+    List<StockReservation> findAllByExpiresAtLessThanEqualOrderByExpiresAt(LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int removeById(UUID id);
+
+    @Query("""
+            SELECT r.productId AS productId, SUM(r.quantity) AS quantity
+            FROM StockReservation r
+            WHERE r.expiresAt > :now
+            GROUP BY r.productId
+            """)
+    List<ReservedQuantityDTO> sumActiveQuantityByProduct(LocalDateTime now);
+}
@@ -1,39 +1,165 @@
 package com.foursales.ecommerce.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foursales.ecommerce.dto.OrderSearchFilter;
+import com.foursales.ecommerce.dto.OrderSearchResultDTO;
+import com.foursales.ecommerce.enums.OrderStatus;
+import com.foursales.ecommerce.resource.request.CreateOrderBatchRequest;
 import com.foursales.ecommerce.resource.request.CreateOrderRequest;
+import com.foursales.ecommerce.resource.request.PayOrdersRequest;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
+import com.foursales.ecommerce.resource.response.OrderBatchResultResponse;
 import com.foursales.ecommerce.resource.response.OrderResponse;
+import com.foursales.ecommerce.resource.response.PaymentStatusResponse;
+import com.foursales.ecommerce.service.IdempotencyService;
 import com.foursales.ecommerce.service.OrderService;
+import com.foursales.ecommerce.service.PaymentQueue;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("v1/orders")
 @RequiredArgsConstructor
 public class OrderResource {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String EXPORT_FILENAME = "orders.ndjson";
+    private static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(10);
+
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final PaymentQueue paymentQueue;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public OrderResponse createOrder(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody @Valid CreateOrderRequest request) {
-        return orderService.createOrder(request);
+        return idempotent("create-order", idempotencyKey, request, OrderResponse.class,
+                () -> orderService.createOrder(request));
+    }
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPageResponse<OrderSearchResultDTO> searchOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) BigDecimal maxTotal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return orderService.searchOrders(
+                new OrderSearchFilter(status, userId, createdFrom, createdTo, minTotal, maxTotal), cursor, size);
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<OrderBatchResultResponse> createOrders(
+            @RequestBody @Valid CreateOrderBatchRequest request) {
+        return orderService.createOrders(request);
+    }
+
+    @PostMapping("/pay")
+    @ResponseStatus(HttpStatus.OK)
+    public List<OrderBatchResultResponse> payOrders(
+            @RequestBody @Valid PayOrdersRequest request) {
+        return orderService.payOrders(request);
     }
 
     @PostMapping("/{id}/pay")
+    public ResponseEntity<?> payOrder(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @PathVariable UUID id) {
+        if (paymentQueue.isEnabled()) {
+            PaymentStatusResponse status = idempotent("pay-order-async", idempotencyKey, id,
+                    PaymentStatusResponse.class, () -> paymentQueue.submit(id));
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/v1/orders/{id}/payment")
+                            .buildAndExpand(id)
+                            .toUri())
+                    .body(status);
+        }
+        return ResponseEntity.ok(idempotent("pay-order", idempotencyKey, id, OrderResponse.class,
+                () -> orderService.payOrder(id)));
+    }
+
+    @GetMapping("/{id}/payment")
     @ResponseStatus(HttpStatus.OK)
-    public OrderResponse payOrder(@PathVariable UUID id) {
-        return orderService.payOrder(id);
+    public PaymentStatusResponse getPaymentStatus(@PathVariable UUID id) {
+        return paymentQueue.getStatus(id);
     }
 
-    @GetMapping("/my")
+    @GetMapping(value = "/my", params = {"!cursor", "!size"})
     @ResponseStatus(HttpStatus.OK)
     public List<OrderResponse> getMyOrders() {
         return orderService.getUserOrders();
     }
+
+    @GetMapping("/my")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageResponse<OrderResponse> getMyOrdersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return orderService.getUserOrders(cursor, size);
+    }
+
+    @GetMapping(value = "/my/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMyOrders(HttpServletRequest request) {
+        UUID userId = orderService.getAuthenticatedUserId();
+
+        // A full history can take far longer than the container's default async timeout, which
+        // still applies to every other asynchronous request.
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(EXPORT_TIMEOUT.toMillis());
+
+        StreamingResponseBody body = outputStream -> orderService.exportUserOrders(userId, order -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(order));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(EXPORT_FILENAME)
+                        .build()
+                        .toString())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private <T> T idempotent(String scope, String idempotencyKey, Object request, Class<T> responseType,
+                             Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        return idempotencyService.execute(scope, idempotencyKey, request, responseType, action);
+    }
 }
@@ -1,7 +1,9 @@
 package com.foursales.ecommerce.resource;
 
+import com.foursales.ecommerce.dto.ProductFilter;
 import com.foursales.ecommerce.resource.request.CreateProductRequest;
 import com.foursales.ecommerce.resource.request.UpdateProductRequest;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
 import com.foursales.ecommerce.resource.response.ProductResponse;
 import com.foursales.ecommerce.service.ProductService;
 import jakarta.validation.Valid;
@@ -10,17 +12,25 @@ import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("v1/products")
 @RequiredArgsConstructor
 public class ProductResource {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ProductService productService;
 
     @PostMapping
@@ -35,7 +45,7 @@ public class ProductResource {
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('ADMIN')")
     public ProductResponse update(
-            @PathVariable UUID id, @RequestBody UpdateProductRequest request) {
+            @PathVariable UUID id, @RequestBody @Valid UpdateProductRequest request) {
         return productService.update(id, request);
     }
 
@@ -47,15 +57,45 @@ public class ProductResource {
     }
 
     @GetMapping
+    public ResponseEntity<Page<ProductResponse>> findAll(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @ParameterObject @PageableDefault(size = 20, sort = "name") Pageable pageable,
+            WebRequest request) {
+        return conditional(request, productService.getCatalogETag(),
+                () -> productService.findAll(new ProductFilter(category, minPrice, maxPrice), pageable));
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageResponse<ProductResponse>> findAllAfter(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        return conditional(request, productService.getCatalogETag(),
+                () -> productService.findAllAfter(new ProductFilter(category, minPrice, maxPrice), after, size));
+    }
+
+    @GetMapping("/search")
     @ResponseStatus(HttpStatus.OK)
-    public Page<ProductResponse> findAll(
-            @ParameterObject @PageableDefault(size = 20, sort = "name") Pageable pageable) {
-        return productService.findAll(pageable);
+    public List<ProductResponse> search(
+            @RequestParam String q, @RequestParam(defaultValue = "20") int size) {
+        return productService.search(q, size);
     }
 
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public ProductResponse findById(@PathVariable UUID id) {
-        return productService.findById(id);
+    public ResponseEntity<ProductResponse> findById(@PathVariable UUID id, WebRequest request) {
+        return conditional(request, productService.getETag(id), () -> productService.findById(id));
+    }
+
+    /** Answers 304 without loading the body when the client already holds {@code eTag}. */
+    private static <T> ResponseEntity<T> conditional(WebRequest request, String eTag, Supplier<T> body) {
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(body.get());
     }
 }
@@ -0,0 +1,14 @@
+package com.foursales.ecommerce.resource.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record CreateOrderBatchRequest(
+        @NotEmpty
+        @Size(max = 1000)
+        @Valid
+        List<CreateOrderRequest> orders) {
+}
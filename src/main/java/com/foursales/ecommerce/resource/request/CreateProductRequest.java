@@ -1,7 +1,9 @@
 package com.foursales.ecommerce.resource.request;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
 
@@ -11,6 +13,8 @@ public record CreateProductRequest(
         @NotBlank
         String description,
         @NotNull
+        @Positive
+        @Digits(integer = 8, fraction = 2)
         BigDecimal price,
         @NotBlank
         String category,
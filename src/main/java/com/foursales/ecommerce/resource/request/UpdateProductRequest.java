@@ -1,10 +1,15 @@
 package com.foursales.ecommerce.resource.request;
 
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Positive;
+
 import java.math.BigDecimal;
 
 public record UpdateProductRequest(
         String name,
         String description,
+        @Positive
+        @Digits(integer = 8, fraction = 2)
         BigDecimal price,
         String category,
         Integer stockQuantity) {
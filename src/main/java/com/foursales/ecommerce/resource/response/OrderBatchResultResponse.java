@@ -0,0 +1,17 @@
+package com.foursales.ecommerce.resource.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderBatchResultResponse {
+
+    private Integer index;
+    private OrderResponse order;
+    private String error;
+}
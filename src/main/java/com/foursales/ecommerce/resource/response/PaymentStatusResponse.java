@@ -0,0 +1,20 @@
+package com.foursales.ecommerce.resource.response;
+
+import com.foursales.ecommerce.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentStatusResponse {
+
+    private UUID orderId;
+    private PaymentStatus status;
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.foursales.ecommerce.scheduler;
+
+import com.foursales.ecommerce.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.idempotency.persistent", havingValue = "true")
+public class IdempotencyRecordScheduler {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval}")
+    public void removeExpiredRecords() {
+        idempotencyService.removeExpired();
+    }
+}
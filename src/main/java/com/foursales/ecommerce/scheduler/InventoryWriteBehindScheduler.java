@@ -0,0 +1,28 @@
+package com.foursales.ecommerce.scheduler;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.service.InMemoryStockInventory;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.inventory.mode", havingValue = "in-memory")
+public class InventoryWriteBehindScheduler {
+
+    private final InMemoryStockInventory inMemoryStockInventory;
+    private final PropertiesConfig propertiesConfig;
+
+    @Scheduled(fixedDelayString = "${app.inventory.flush-interval}")
+    public void flushPendingDeltas() {
+        inMemoryStockInventory.flush(propertiesConfig.getInventory().getFlushBatchSize());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushPendingDeltas();
+    }
+}
@@ -0,0 +1,48 @@
+package com.foursales.ecommerce.scheduler;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.dto.OrderExpiryBatch;
+import com.foursales.ecommerce.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+public class OrderExpiryScheduler {
+
+    private final OrderService orderService;
+    private final PropertiesConfig propertiesConfig;
+    private final Counter expiredOrders;
+
+    public OrderExpiryScheduler(OrderService orderService, PropertiesConfig propertiesConfig,
+                                MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.propertiesConfig = propertiesConfig;
+        this.expiredOrders = Counter.builder("orders.expired")
+                .description("PENDING orders canceled for being older than the configured max age")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-expiry.sweep-interval}")
+    public void expireStalePendingOrders() {
+        PropertiesConfig.OrderExpiry properties = propertiesConfig.getOrderExpiry();
+        LocalDateTime createdBefore = LocalDateTime.now().minus(properties.getMaxAge());
+
+        int total = 0;
+        OrderExpiryBatch batch;
+        do {
+            batch = orderService.expirePendingOrders(createdBefore, properties.getBatchSize());
+            total += batch.expired();
+        } while (batch.scanned() == properties.getBatchSize());
+
+        expiredOrders.increment(total);
+        if (total > 0) {
+            log.info("Expired {} PENDING orders created before {}", total, createdBefore);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.foursales.ecommerce.scheduler;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductNameBackfillScheduler {
+
+    private final OrderService orderService;
+    private final PropertiesConfig propertiesConfig;
+
+    private volatile boolean completed;
+
+    @Scheduled(fixedDelayString = "${app.product-name-backfill.interval}")
+    public void backfillProductNames() {
+        if (completed) {
+            return;
+        }
+
+        int batchSize = propertiesConfig.getProductNameBackfill().getBatchSize();
+        int total = 0;
+        int updated;
+        do {
+            updated = orderService.backfillProductNames(batchSize);
+            total += updated;
+        } while (updated == batchSize);
+
+        completed = true;
+        if (total > 0) {
+            log.info("Backfilled product name of {} order items", total);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.foursales.ecommerce.scheduler;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class StockReservationScheduler {
+
+    private final StockReservationService stockReservationService;
+    private final PropertiesConfig propertiesConfig;
+
+    @Scheduled(fixedDelayString = "${app.reservation.sweep-interval}")
+    public void releaseExpiredReservations() {
+        int batchSize = propertiesConfig.getReservation().getBatchSize();
+
+        int released;
+        do {
+            released = stockReservationService.releaseExpired(batchSize);
+        } while (released == batchSize);
+    }
+}
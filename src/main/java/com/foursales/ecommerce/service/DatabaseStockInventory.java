@@ -0,0 +1,49 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.dto.ProductStockDTO;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/** Locks the products in id order, so concurrent payers cannot deadlock. */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.inventory.mode", havingValue = "database", matchIfMissing = true)
+public class DatabaseStockInventory implements StockInventory {
+
+    private final ProductRepository productRepository;
+
+    @Override
+    public int getAvailable(UUID productId, int persistedQuantity) {
+        return persistedQuantity;
+    }
+
+    @Override
+    public void decrement(Map<UUID, Integer> quantitiesByProduct) {
+        Map<UUID, Integer> stockByProduct = productRepository.lockStockByIdIn(quantitiesByProduct.keySet()).stream()
+                .collect(Collectors.toMap(ProductStockDTO::getId, ProductStockDTO::getStockQuantity));
+
+        quantitiesByProduct.forEach((productId, quantity) -> {
+            int available = stockByProduct.getOrDefault(productId, 0);
+            if (available < quantity) {
+                throw new InsufficientStockException(productId, available);
+            }
+        });
+
+        quantitiesByProduct.forEach((productId, quantity) -> {
+            if (productRepository.decrementStock(productId, quantity) == 0) {
+                throw new IllegalStateException("Stock changed while locked for product: " + productId);
+            }
+        });
+    }
+
+    @Override
+    public void reset(UUID productId, int stockQuantity) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.foursales.ecommerce.service;
+
+import java.util.Map;
+import java.util.UUID;
+
+/** Inventory that commits decrements on its own connections, outside the caller's transaction. */
+public interface DetachedStockInventory extends StockInventory {
+
+    void restore(Map<UUID, Integer> quantitiesByProduct);
+}
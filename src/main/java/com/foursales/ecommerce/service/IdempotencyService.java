@@ -0,0 +1,160 @@
+package com.foursales.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.entity.IdempotencyRecord;
+import com.foursales.ecommerce.exceptions.BusinessException;
+import com.foursales.ecommerce.exceptions.IdempotencyKeyInProgressException;
+import com.foursales.ecommerce.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_ID_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final PropertiesConfig.Idempotency properties;
+
+    private final Cache<String, InFlight> responses;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, JwtService jwtService,
+                              ObjectMapper objectMapper, PropertiesConfig propertiesConfig) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.properties = propertiesConfig.getIdempotency();
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    public <T> T execute(String scope, String idempotencyKey, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        UUID userId = jwtService.getAuthenticatedUserId();
+        String id = userId + ":" + scope + ":" + idempotencyKey;
+        if (id.length() > MAX_ID_LENGTH) {
+            throw new BusinessException("Idempotency-Key must be at most "
+                    + (MAX_ID_LENGTH - id.length() + idempotencyKey.length()) + " characters");
+        }
+        String fingerprint = fingerprint(request);
+
+        InFlight inFlight = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight existing = responses.asMap().putIfAbsent(id, inFlight);
+        if (existing != null) {
+            return await(existing, fingerprint, responseType, idempotencyKey);
+        }
+
+        try {
+            T response = findStored(id, fingerprint, responseType, idempotencyKey)
+                    .orElseGet(() -> {
+                        T result = action.get();
+                        store(id, fingerprint, result);
+                        return result;
+                    });
+            inFlight.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            responses.asMap().remove(id, inFlight);
+            inFlight.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int removeExpired() {
+        return idempotencyRecordRepository.deleteAllExpired(LocalDateTime.now());
+    }
+
+    /** SHA-256 of the request serialized as JSON. */
+    String fingerprint(Object request) {
+        try {
+            byte[] json = objectMapper.writer()
+                    .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
+
+    private <T> T await(InFlight inFlight, String fingerprint, Class<T> responseType, String idempotencyKey) {
+        checkFingerprint(inFlight.fingerprint(), fingerprint, idempotencyKey);
+        try {
+            return responseType.cast(inFlight.response()
+                    .get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(
+                    "Request with Idempotency-Key is still being processed: " + idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Idempotency-Key: " + idempotencyKey);
+        }
+    }
+
+    private <T> Optional<T> findStored(String id, String fingerprint, Class<T> responseType, String idempotencyKey) {
+        if (!properties.isPersistent()) {
+            return Optional.empty();
+        }
+
+        return idempotencyRecordRepository.findByIdAndExpiresAtAfter(id, LocalDateTime.now()).map(record -> {
+            checkFingerprint(record.getFingerprint(), fingerprint, idempotencyKey);
+            try {
+                return objectMapper.readValue(record.getResponse(), responseType);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to read stored response for Idempotency-Key: " + idempotencyKey, e);
+            }
+        });
+    }
+
+    private void store(String id, String fingerprint, Object response) {
+        if (!properties.isPersistent()) {
+            return;
+        }
+
+        try {
+            idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                    .id(id)
+                    .fingerprint(fingerprint)
+                    .response(objectMapper.writeValueAsString(response))
+                    .expiresAt(LocalDateTime.now().plus(properties.getTtl()))
+                    .build());
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to persist response for idempotency key {}", id, e);
+        }
+    }
+
+    private static void checkFingerprint(String stored, String requested, String idempotencyKey) {
+        if (!stored.equals(requested)) {
+            throw new BusinessException("Idempotency-Key already used with a different request: " + idempotencyKey);
+        }
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<Object> response) {
+    }
+}
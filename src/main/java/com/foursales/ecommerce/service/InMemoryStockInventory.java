@@ -0,0 +1,184 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@ConditionalOnProperty(name = "app.inventory.mode", havingValue = "in-memory")
+public class InMemoryStockInventory implements StockInventory {
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+
+    private final Map<UUID, ProductStock> stockByProduct = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    public InMemoryStockInventory(ProductRepository productRepository, ProductCache productCache,
+                                  MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+
+        Gauge.builder("inventory.write-behind.pending.units", this, InMemoryStockInventory::getPendingUnits)
+                .description("Stock units decremented in memory and not yet persisted")
+                .register(meterRegistry);
+        Gauge.builder("inventory.write-behind.pending.products", this, InMemoryStockInventory::getPendingProducts)
+                .description("Products with stock deltas not yet persisted")
+                .register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        Map<UUID, ProductStock> persisted = new HashMap<>();
+        productRepository.findAllStockQuantities().forEach(stock ->
+                persisted.put(stock.getId(), new ProductStock(stock.getStockQuantity())));
+
+        synchronized (flushLock) {
+            stockByProduct.clear();
+            stockByProduct.putAll(persisted);
+        }
+    }
+
+    @Override
+    public int getAvailable(UUID productId, int persistedQuantity) {
+        return stockByProduct.computeIfAbsent(productId, id -> new ProductStock(persistedQuantity)).getAvailable();
+    }
+
+    @Override
+    public void decrement(Map<UUID, Integer> quantitiesByProduct) {
+        Map<ProductStock, Integer> decremented = new LinkedHashMap<>();
+
+        for (Map.Entry<UUID, Integer> entry : quantitiesByProduct.entrySet()) {
+            UUID productId = entry.getKey();
+            ProductStock stock = getStock(productId);
+
+            if (!stock.tryDecrement(entry.getValue())) {
+                decremented.forEach(ProductStock::complete);
+                throw new InsufficientStockException(productId, stock.getAvailable());
+            }
+
+            decremented.put(stock, entry.getValue());
+        }
+
+        TransactionCallbacks.afterCompletion(committed -> decremented.forEach((stock, quantity) -> {
+            if (committed) {
+                stock.commit(quantity);
+            } else {
+                stock.complete(quantity);
+            }
+        }));
+    }
+
+    /** Re-reads the persisted stock, since a flush may have been applied on top of the write. */
+    @Override
+    public void reset(UUID productId, int stockQuantity) {
+        synchronized (flushLock) {
+            int persisted = productRepository.findStockQuantityById(productId).orElse(stockQuantity);
+            stockByProduct.computeIfAbsent(productId, id -> new ProductStock(persisted)).rebase(persisted);
+        }
+    }
+
+    public int flush(int batchSize) {
+        synchronized (flushLock) {
+            Map<UUID, Integer> deltasByProduct = new HashMap<>();
+            stockByProduct.forEach((productId, stock) -> {
+                int delta = stock.takePending();
+                if (delta != 0) {
+                    deltasByProduct.put(productId, delta);
+                }
+            });
+
+            if (deltasByProduct.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                productRepository.applyStockDeltas(deltasByProduct, batchSize);
+            } catch (RuntimeException e) {
+                deltasByProduct.forEach((productId, delta) -> stockByProduct.get(productId).returnPending(delta));
+                throw e;
+            }
+            productCache.evict(deltasByProduct.keySet());
+            return deltasByProduct.size();
+        }
+    }
+
+    public long getPendingUnits() {
+        return stockByProduct.values().stream().mapToLong(ProductStock::getPending).sum();
+    }
+
+    public long getPendingProducts() {
+        return stockByProduct.values().stream().filter(stock -> stock.getPending() != 0).count();
+    }
+
+    private ProductStock getStock(UUID productId) {
+        return stockByProduct.computeIfAbsent(productId, id ->
+                new ProductStock(productRepository.findStockQuantityById(id).orElse(0)));
+    }
+
+    /** {@code available} excludes both {@code uncommitted} and {@code pending} decrements. */
+    private static final class ProductStock {
+
+        private int available;
+        private int uncommitted;
+        private int pending;
+
+        ProductStock(int available) {
+            this.available = available;
+        }
+
+        synchronized int getAvailable() {
+            return Math.max(0, available);
+        }
+
+        synchronized int getPending() {
+            return pending;
+        }
+
+        synchronized boolean tryDecrement(int quantity) {
+            if (available < quantity) {
+                return false;
+            }
+            available -= quantity;
+            uncommitted += quantity;
+            return true;
+        }
+
+        synchronized void commit(int quantity) {
+            uncommitted -= quantity;
+            pending += quantity;
+        }
+
+        synchronized void complete(int quantity) {
+            uncommitted -= quantity;
+            available += quantity;
+        }
+
+        synchronized int takePending() {
+            int delta = pending;
+            pending = 0;
+            return delta;
+        }
+
+        synchronized void returnPending(int delta) {
+            pending += delta;
+        }
+
+        synchronized void rebase(int persisted) {
+            available = persisted - uncommitted - pending;
+        }
+    }
+}
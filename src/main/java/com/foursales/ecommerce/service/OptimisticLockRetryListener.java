@@ -0,0 +1,53 @@
+package com.foursales.ecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+
+@Component("optimisticLockRetryListener")
+@RequiredArgsConstructor
+public class OptimisticLockRetryListener implements RetryListener {
+
+    private static final String UNKNOWN_PRODUCT = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        if (!(throwable instanceof OptimisticLockingFailureException)) {
+            return;
+        }
+        Counter.builder("stock.optimistic-lock.conflicts")
+                .description("Stock writes that lost an optimistic lock race")
+                .tag("product", productOf(throwable))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException
+                && Boolean.TRUE.equals(context.getAttribute(RetryContext.EXHAUSTED))) {
+            Counter.builder("stock.optimistic-lock.exhausted")
+                    .description("Payments that gave up after exhausting optimistic lock retries")
+                    .tag("product", productOf(throwable))
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private static String productOf(Throwable throwable) {
+        if (throwable instanceof ObjectOptimisticLockingFailureException e && e.getIdentifier() != null) {
+            return e.getIdentifier().toString();
+        }
+        return UNKNOWN_PRODUCT;
+    }
+}
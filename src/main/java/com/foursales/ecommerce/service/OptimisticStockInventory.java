@@ -0,0 +1,56 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.dto.ProductStockVersionDTO;
+import com.foursales.ecommerce.entity.Product;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.inventory.mode", havingValue = "optimistic")
+public class OptimisticStockInventory implements StockInventory {
+
+    private final ProductRepository productRepository;
+
+    @Override
+    public int getAvailable(UUID productId, int persistedQuantity) {
+        return persistedQuantity;
+    }
+
+    @Override
+    public void decrement(Map<UUID, Integer> quantitiesByProduct) {
+        Map<UUID, ProductStockVersionDTO> stockById = productRepository
+                .findStockVersionsByIdIn(quantitiesByProduct.keySet()).stream()
+                .collect(Collectors.toMap(ProductStockVersionDTO::getId, Function.identity()));
+
+        quantitiesByProduct.forEach((productId, quantity) -> {
+            ProductStockVersionDTO stock = stockById.get(productId);
+            int available = stock == null ? 0 : stock.getStockQuantity();
+            if (available < quantity) {
+                throw new InsufficientStockException(productId, available);
+            }
+        });
+
+        quantitiesByProduct.forEach((productId, quantity) -> {
+            ProductStockVersionDTO stock = stockById.get(productId);
+            int updated = productRepository.updateStockIfVersionMatches(
+                    productId, stock.getVersion(), stock.getStockQuantity() - quantity);
+            if (updated == 0) {
+                throw new ObjectOptimisticLockingFailureException(Product.class, productId);
+            }
+        });
+    }
+
+    @Override
+    public void reset(UUID productId, int stockQuantity) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.foursales.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foursales.ecommerce.dto.OrderCursor;
+import com.foursales.ecommerce.entity.Order;
+import com.foursales.ecommerce.entity.OrderHistoryView;
+import com.foursales.ecommerce.enums.OrderStatus;
+import com.foursales.ecommerce.mapper.OrderHistoryMapper;
+import com.foursales.ecommerce.mapper.OrderMapper;
+import com.foursales.ecommerce.repository.OrderHistoryViewRepository;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
+import com.foursales.ecommerce.resource.response.OrderResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class OrderHistoryService {
+
+    private final OrderHistoryViewRepository orderHistoryViewRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public void record(Collection<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        List<OrderHistoryView> views = orders.stream()
+                .map(order -> OrderHistoryMapper.toEntity(order, write(OrderMapper.toResponse(order))))
+                .toList();
+        orderHistoryViewRepository.saveAll(views);
+    }
+
+    @Transactional
+    public void updateStatus(Collection<Order> orders) {
+        Map<OrderStatus, List<UUID>> orderIdsByStatus = orders.stream()
+                .collect(Collectors.groupingBy(Order::getStatus,
+                        Collectors.mapping(Order::getId, Collectors.toList())));
+
+        orderIdsByStatus.forEach((status, orderIds) ->
+                orderHistoryViewRepository.updateStatusByOrderIdIn(orderIds, status));
+    }
+
+    @Transactional
+    public void updateStatus(Collection<UUID> orderIds, OrderStatus currentStatus, OrderStatus newStatus) {
+        orderHistoryViewRepository.updateStatusByOrderIdIn(orderIds, currentStatus, newStatus);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getUserOrders(UUID userId, OrderCursor cursor, int size) {
+        Limit limit = Limit.of(size + 1);
+        List<OrderHistoryView> views = cursor == null
+                ? orderHistoryViewRepository.findByUserId(userId, limit)
+                : orderHistoryViewRepository.findByUserIdBefore(userId, cursor.createdAt(), cursor.id(), limit);
+
+        return OrderHistoryMapper.toCursorPageResponse(views, size, this::read);
+    }
+
+    private OrderResponse read(OrderHistoryView view) {
+        try {
+            OrderResponse response = objectMapper.readValue(view.getDocument(), OrderResponse.class);
+            response.setStatus(view.getStatus());
+            return response;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read order history document: " + view.getOrderId(), e);
+        }
+    }
+
+    private String write(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to write order history document: " + response.getId(), e);
+        }
+    }
+}
@@ -1,39 +1,81 @@
 package com.foursales.ecommerce.service;
 
+import com.foursales.ecommerce.dto.OrderCursor;
+import com.foursales.ecommerce.dto.OrderExpiryBatch;
+import com.foursales.ecommerce.dto.OrderExportRowDTO;
+import com.foursales.ecommerce.dto.OrderSearchFilter;
+import com.foursales.ecommerce.dto.OrderSearchResultDTO;
+import com.foursales.ecommerce.dto.ProductSnapshot;
 import com.foursales.ecommerce.entity.Order;
 import com.foursales.ecommerce.entity.OrderItem;
-import com.foursales.ecommerce.entity.Product;
 import com.foursales.ecommerce.entity.User;
 import com.foursales.ecommerce.enums.OrderStatus;
 import com.foursales.ecommerce.enums.ProductStatus;
 import com.foursales.ecommerce.exceptions.BusinessException;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.mapper.CursorMapper;
 import com.foursales.ecommerce.mapper.OrderItemMapper;
 import com.foursales.ecommerce.mapper.OrderMapper;
+import com.foursales.ecommerce.repository.OrderItemRepository;
 import com.foursales.ecommerce.repository.OrderRepository;
 import com.foursales.ecommerce.repository.ProductRepository;
 import com.foursales.ecommerce.repository.UserRepository;
+import com.foursales.ecommerce.resource.request.CreateOrderBatchRequest;
 import com.foursales.ecommerce.resource.request.CreateOrderRequest;
 import com.foursales.ecommerce.resource.request.OrderItemRequest;
+import com.foursales.ecommerce.resource.request.PayOrdersRequest;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
+import com.foursales.ecommerce.resource.response.OrderBatchResultResponse;
+import com.foursales.ecommerce.resource.response.OrderItemResponse;
 import com.foursales.ecommerce.resource.response.OrderResponse;
+import com.foursales.ecommerce.util.Money;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final StockReservationService stockReservationService;
+    private final StockInventory stockInventory;
+    private final OrderHistoryService orderHistoryService;
+    private final ProductCache productCache;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
@@ -42,74 +84,541 @@ public class OrderService {
         User user = userRepository.findById(userId).orElseThrow(() ->
                 new EntityNotFoundException("User not found: " + userId));
 
-        List<OrderItem> orderItems = new ArrayList<>();
-        BigDecimal totalPrice = BigDecimal.ZERO;
+        Map<UUID, ProductSnapshot> productsById = findProductsById(List.of(request));
 
-        for (OrderItemRequest itemRequest : request.items()) {
-            UUID productId = itemRequest.productId();
+        Order order = buildOrder(user, request, productsById);
 
-            Product product = productRepository.findById(productId).orElseThrow(() ->
-                    new EntityNotFoundException("Product not found: " + productId));
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        stockReservationService.reserve(savedOrder);
+        orderHistoryService.record(List.of(savedOrder));
+        return OrderMapper.toResponse(savedOrder);
+    }
 
-            if (!ProductStatus.ACTIVE.equals(product.getStatus())) {
-                throw new BusinessException("Product is not active: " + productId);
-            }
+    @Transactional
+    public List<OrderBatchResultResponse> createOrders(CreateOrderBatchRequest request) {
+        UUID userId = jwtService.getAuthenticatedUserId();
 
-            BigDecimal itemTotalPrice = product.getPrice().multiply(BigDecimal.valueOf(itemRequest.quantity()));
-            totalPrice = totalPrice.add(itemTotalPrice);
+        User user = userRepository.findById(userId).orElseThrow(() ->
+                new EntityNotFoundException("User not found: " + userId));
+
+        Map<UUID, ProductSnapshot> productsById = findProductsById(request.orders());
 
-            OrderItem orderItem = OrderItemMapper.toEntity(product, itemRequest.quantity());
-            orderItems.add(orderItem);
+        List<Order> accepted = new ArrayList<>(request.orders().size());
+        Map<Integer, String> errorsByIndex = new HashMap<>();
+
+        for (int index = 0; index < request.orders().size(); index++) {
+            try {
+                Order order = buildOrder(user, request.orders().get(index), productsById);
+                stockReservationService.hold(order);
+                accepted.add(order);
+            } catch (EntityNotFoundException | BusinessException e) {
+                accepted.add(null);
+                errorsByIndex.put(index, e.getMessage());
+            }
         }
 
-        Order order = OrderMapper.toEntity(user, totalPrice);
-        orderItems.forEach(item -> item.setOrder(order));
-        order.setItems(orderItems);
+        List<Order> savedOrders = orderRepository.saveAllAndFlush(accepted.stream().filter(Objects::nonNull).toList());
+        stockReservationService.record(savedOrders);
+        orderHistoryService.record(savedOrders);
 
-        Order savedOrder = orderRepository.save(order);
-        return OrderMapper.toResponse(savedOrder);
+        return OrderMapper.toBatchResponse(accepted, errorsByIndex);
     }
 
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PessimisticLockingFailureException.class},
+            maxAttemptsExpression = "${app.payment.retry.max-attempts}",
+            backoff = @Backoff(delayExpression = "${app.payment.retry.initial-delay}",
+                    maxDelayExpression = "${app.payment.retry.max-delay}",
+                    multiplierExpression = "${app.payment.retry.multiplier}",
+                    random = true),
+            listeners = "optimisticLockRetryListener")
     public OrderResponse payOrder(UUID orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new EntityNotFoundException("Order not found: " + orderId));
+        if (stockInventory instanceof DetachedStockInventory detached) {
+            return payAhead(orderId, detached);
+        }
+
+        return inTransaction(() -> {
+            Order order = findOrder(orderId);
+            pay(order, stockInventory::decrement);
+            return OrderMapper.toResponse(order);
+        });
+    }
+
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PessimisticLockingFailureException.class},
+            maxAttemptsExpression = "${app.payment.retry.max-attempts}",
+            backoff = @Backoff(delayExpression = "${app.payment.retry.initial-delay}",
+                    maxDelayExpression = "${app.payment.retry.max-delay}",
+                    multiplierExpression = "${app.payment.retry.multiplier}",
+                    random = true),
+            listeners = "optimisticLockRetryListener")
+    public Map<UUID, String> payOrders(Collection<UUID> orderIds) {
+        if (stockInventory instanceof DetachedStockInventory detached) {
+            return payAllAhead(orderIds, findOrdersById(orderIds), detached);
+        }
+
+        return inTransaction(() -> payAll(orderIds, findOrdersById(orderIds)));
+    }
 
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PessimisticLockingFailureException.class},
+            maxAttemptsExpression = "${app.payment.retry.max-attempts}",
+            backoff = @Backoff(delayExpression = "${app.payment.retry.initial-delay}",
+                    maxDelayExpression = "${app.payment.retry.max-delay}",
+                    multiplierExpression = "${app.payment.retry.multiplier}",
+                    random = true),
+            listeners = "optimisticLockRetryListener")
+    public List<OrderBatchResultResponse> payOrders(PayOrdersRequest request) {
+        if (stockInventory instanceof DetachedStockInventory detached) {
+            Map<UUID, Order> ordersById = findOrdersById(request.orderIds());
+            Map<UUID, String> errorsByOrderId = payAllAhead(request.orderIds(), ordersById, detached);
+            return OrderMapper.toPaymentBatchResponse(request.orderIds(), ordersById, errorsByOrderId);
+        }
+
+        return inTransaction(() -> {
+            Map<UUID, Order> ordersById = findOrdersById(request.orderIds());
+            Map<UUID, String> errorsByOrderId = payAll(request.orderIds(), ordersById);
+            return OrderMapper.toPaymentBatchResponse(request.orderIds(), ordersById, errorsByOrderId);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<UUID> findPaidOrderIds(Collection<UUID> orderIds) {
+        return orderRepository.findIdsByIdInAndStatus(orderIds, OrderStatus.PAID);
+    }
+
+    /** Orders settled between the scan and the update are scanned but not expired. */
+    @Transactional
+    public OrderExpiryBatch expirePendingOrders(LocalDateTime createdBefore, int batchSize) {
+        List<UUID> orderIds = orderRepository.findIdsByStatusAndCreatedAtBefore(
+                OrderStatus.PENDING, createdBefore, Limit.of(batchSize));
+
+        if (orderIds.isEmpty()) {
+            return new OrderExpiryBatch(0, 0);
+        }
+
+        stockReservationService.release(orderIds);
+        int expired = orderRepository.updateStatusByIdIn(orderIds, OrderStatus.PENDING, OrderStatus.CANCELED);
+        orderHistoryService.updateStatus(orderIds, OrderStatus.PENDING, OrderStatus.CANCELED);
+        return new OrderExpiryBatch(orderIds.size(), expired);
+    }
+
+    @Transactional
+    public int backfillProductNames(int batchSize) {
+        List<UUID> orderItemIds = orderItemRepository.findIdsByProductNameIsNull(Limit.of(batchSize));
+
+        if (orderItemIds.isEmpty()) {
+            return 0;
+        }
+
+        orderItemRepository.copyProductNames(orderItemIds);
+        return orderItemIds.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getUserOrders() {
+        List<OrderResponse> orders = new ArrayList<>();
+        exportUserOrders(getAuthenticatedUserId(), orders::add);
+        return orders;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getUserOrders(String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        UUID userId = getAuthenticatedUserId();
+        OrderCursor orderCursor = cursor == null ? null : CursorMapper.toOrderCursor(cursor);
+
+        return orderHistoryService.getUserOrders(userId, orderCursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderSearchResultDTO> searchOrders(OrderSearchFilter filter, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (filter.createdFrom() != null && filter.createdTo() != null
+                && filter.createdFrom().isAfter(filter.createdTo())) {
+            throw new BusinessException("createdFrom must not be after createdTo");
+        }
+        if (filter.minTotal() != null && filter.maxTotal() != null
+                && filter.minTotal().compareTo(filter.maxTotal()) > 0) {
+            throw new BusinessException("minTotal must not be greater than maxTotal");
+        }
+
+        OrderCursor orderCursor = cursor == null ? null : CursorMapper.toOrderCursor(cursor);
+        List<OrderSearchResultDTO> rows = orderRepository.searchOrders(filter, orderCursor, size + 1);
+
+        return OrderMapper.toSearchPageResponse(rows, size);
+    }
+
+    public UUID getAuthenticatedUserId() {
+        UUID userId = jwtService.getAuthenticatedUserId();
+
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User not found: " + userId);
+        }
+        return userId;
+    }
+
+    /** Hands each order to the consumer as soon as its last item row is read. */
+    @Transactional(readOnly = true)
+    public void exportUserOrders(UUID userId, Consumer<OrderResponse> consumer) {
+        try (Stream<OrderExportRowDTO> rows = orderRepository.streamExportRowsByUserId(userId)) {
+            OrderExportRowDTO current = null;
+            List<OrderItemResponse> items = new ArrayList<>();
+
+            for (Iterator<OrderExportRowDTO> iterator = rows.iterator(); iterator.hasNext(); ) {
+                OrderExportRowDTO row = iterator.next();
+                if (current != null && !current.orderId().equals(row.orderId())) {
+                    consumer.accept(OrderMapper.toResponse(current, items));
+                    items = new ArrayList<>();
+                }
+                current = row;
+                if (row.quantity() != null) {
+                    items.add(OrderItemMapper.toResponse(row));
+                }
+            }
+
+            if (current != null) {
+                consumer.accept(OrderMapper.toResponse(current, items));
+            }
+        }
+    }
+
+    private void pay(Order order, Consumer<Map<UUID, Integer>> takeStock) {
         if (order.getStatus() != OrderStatus.PENDING) {
+            throw new BusinessException("Order already processed: " + order.getId());
+        }
+
+        Map<UUID, Integer> quantitiesByProduct = OrderItemMapper.toQuantitiesByProduct(order.getItems());
+        try {
+            stockReservationService.confirm(order);
+            takeStock.accept(quantitiesByProduct);
+        } catch (InsufficientStockException e) {
+            order.setStatus(OrderStatus.CANCELED);
+            orderRepository.save(order);
+            orderHistoryService.updateStatus(List.of(order));
+            throw e;
+        }
+
+        order.setStatus(OrderStatus.PAID);
+        orderRepository.save(order);
+        orderHistoryService.updateStatus(List.of(order));
+        productCache.evict(quantitiesByProduct.keySet());
+    }
+
+    /** Takes the stock before the payment transaction and restores it if the order is not paid. */
+    private OrderResponse payAhead(UUID orderId, DetachedStockInventory detached) {
+        Order pending = findOrdersById(List.of(orderId)).get(orderId);
+        if (pending == null) {
+            throw new EntityNotFoundException("Order not found: " + orderId);
+        }
+        if (pending.getStatus() != OrderStatus.PENDING) {
             throw new BusinessException("Order already processed: " + orderId);
         }
 
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            if (product.getStockQuantity() < item.getQuantity()) {
+        Map<UUID, Integer> quantitiesByProduct = OrderItemMapper.toQuantitiesByProduct(pending.getItems());
+        try {
+            detached.decrement(quantitiesByProduct);
+        } catch (InsufficientStockException e) {
+            inTransaction(() -> {
+                cancel(findOrder(orderId));
+                return null;
+            });
+            throw e;
+        }
+
+        try {
+            return inTransaction(() -> {
+                Order order = findOrder(orderId);
+                pay(order, taken -> {
+                });
+                return OrderMapper.toResponse(order);
+            });
+        } catch (RuntimeException e) {
+            detached.restore(quantitiesByProduct);
+            throw e;
+        }
+    }
+
+    private void cancel(Order order) {
+        if (order.getStatus() != OrderStatus.PENDING) {
+            return;
+        }
+
+        order.setStatus(OrderStatus.CANCELED);
+        orderRepository.save(order);
+        orderHistoryService.updateStatus(List.of(order));
+    }
+
+    private Order findOrder(UUID orderId) {
+        return orderRepository.findById(orderId)
+                .orElseThrow(() -> new EntityNotFoundException("Order not found: " + orderId));
+    }
+
+    private Map<UUID, Order> findOrdersById(Collection<UUID> orderIds) {
+        return orderRepository.findAllByIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+    }
+
+    /** Commits business rejections too, so an order canceled for lack of stock stays canceled. */
+    private <T> T inTransaction(Supplier<T> payment) {
+        List<BusinessException> rejections = new ArrayList<>(1);
+        T result = transactionTemplate.execute(status -> {
+            try {
+                return payment.get();
+            } catch (BusinessException e) {
+                rejections.add(e);
+                return null;
+            }
+        });
+
+        if (!rejections.isEmpty()) {
+            throw rejections.get(0);
+        }
+        return result;
+    }
+
+    private Map<UUID, String> payAll(Collection<UUID> orderIds, Map<UUID, Order> ordersById) {
+        PaymentBatch batch = admit(orderIds, ordersById, stockReservationService::confirm);
+        batch.processed().stream()
+                .filter(order -> order.getStatus() == OrderStatus.CANCELED)
+                .forEach(stockReservationService::release);
+
+        decrement(batch);
+        productCache.evict(batch.demandByProduct().keySet());
+
+        batch.payable().stream()
+                .filter(order -> !batch.errorsByOrderId().containsKey(order.getId()))
+                .forEach(order -> order.setStatus(OrderStatus.PAID));
+        orderRepository.saveAll(batch.processed());
+        orderHistoryService.updateStatus(batch.processed());
+        return batch.errorsByOrderId();
+    }
+
+    /** Replaces the entries of {@code ordersById} with the settled orders. */
+    private Map<UUID, String> payAllAhead(Collection<UUID> orderIds, Map<UUID, Order> ordersById,
+                                          DetachedStockInventory detached) {
+        PaymentBatch batch = admit(orderIds, ordersById, order -> {
+        });
+        decrement(batch);
+
+        Map<UUID, Map<UUID, Integer>> takenByOrder = new LinkedHashMap<>();
+        batch.payable().stream()
+                .filter(order -> !batch.errorsByOrderId().containsKey(order.getId()))
+                .forEach(order -> takenByOrder.put(order.getId(),
+                        OrderItemMapper.toQuantitiesByProduct(order.getItems())));
+
+        List<Map<UUID, Integer>> unused;
+        try {
+            unused = inTransaction(() -> settle(batch, takenByOrder, ordersById));
+        } catch (RuntimeException e) {
+            takenByOrder.values().forEach(detached::restore);
+            throw e;
+        }
+
+        unused.forEach(detached::restore);
+        return batch.errorsByOrderId();
+    }
+
+    private List<Map<UUID, Integer>> settle(PaymentBatch batch, Map<UUID, Map<UUID, Integer>> takenByOrder,
+                                            Map<UUID, Order> ordersById) {
+        Map<UUID, Order> settled = findOrdersById(batch.processed().stream().map(Order::getId).toList());
+        List<Map<UUID, Integer>> unused = new ArrayList<>();
+
+        for (Order admitted : batch.processed()) {
+            UUID orderId = admitted.getId();
+            Order order = settled.get(orderId);
+            Map<UUID, Integer> taken = takenByOrder.get(orderId);
+            if (order == null) {
+                batch.errorsByOrderId().put(orderId, "Order not found: " + orderId);
+                if (taken != null) {
+                    unused.add(taken);
+                }
+                continue;
+            }
+            ordersById.put(orderId, order);
+
+            if (order.getStatus() != OrderStatus.PENDING) {
+                batch.errorsByOrderId().put(orderId, "Order already processed: " + orderId);
+                if (taken != null) {
+                    unused.add(taken);
+                }
+                continue;
+            }
+            if (taken == null) {
                 order.setStatus(OrderStatus.CANCELED);
-                orderRepository.save(order);
-                throw new BusinessException(String.format(
-                        "Insufficient stock for product '%s': available only %d",
-                        product.getId(), product.getStockQuantity()
-                ));
+                stockReservationService.release(order);
+                continue;
+            }
+
+            try {
+                stockReservationService.confirm(order);
+                order.setStatus(OrderStatus.PAID);
+            } catch (InsufficientStockException e) {
+                order.setStatus(OrderStatus.CANCELED);
+                batch.errorsByOrderId().put(orderId, e.getMessage());
+                unused.add(taken);
             }
         }
 
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.setStockQuantity(product.getStockQuantity() - item.getQuantity());
-            productRepository.save(product);
+        productCache.evict(batch.demandByProduct().keySet());
+        orderRepository.saveAll(settled.values());
+        orderHistoryService.updateStatus(settled.values());
+        return unused;
+    }
+
+    private PaymentBatch admit(Collection<UUID> orderIds, Map<UUID, Order> ordersById, Consumer<Order> confirm) {
+        PaymentBatch batch = new PaymentBatch(new ArrayList<>(), new ArrayList<>(), new TreeMap<>(), new HashMap<>());
+        Map<UUID, Integer> availableByProduct = new HashMap<>();
+
+        for (UUID orderId : new LinkedHashSet<>(orderIds)) {
+            Order order = ordersById.get(orderId);
+            if (order == null) {
+                batch.errorsByOrderId().put(orderId, "Order not found: " + orderId);
+                continue;
+            }
+            if (order.getStatus() != OrderStatus.PENDING) {
+                batch.errorsByOrderId().put(orderId, "Order already processed: " + orderId);
+                continue;
+            }
+
+            batch.processed().add(order);
+            Map<UUID, Integer> quantitiesByProduct = OrderItemMapper.toQuantitiesByProduct(order.getItems());
+            try {
+                checkAvailable(order, quantitiesByProduct, availableByProduct);
+                confirm.accept(order);
+            } catch (InsufficientStockException e) {
+                order.setStatus(OrderStatus.CANCELED);
+                batch.errorsByOrderId().put(orderId, e.getMessage());
+                continue;
+            }
+
+            quantitiesByProduct.forEach((productId, quantity) -> {
+                availableByProduct.merge(productId, -quantity, Integer::sum);
+                batch.demandByProduct().merge(productId, quantity, Integer::sum);
+            });
+            batch.payable().add(order);
         }
+        return batch;
+    }
 
-        order.setStatus(OrderStatus.PAID);
-        orderRepository.save(order);
-        return OrderMapper.toResponse(order);
+    private void checkAvailable(Order order, Map<UUID, Integer> quantitiesByProduct,
+                                Map<UUID, Integer> availableByProduct) {
+        order.getItems().forEach(item -> availableByProduct.computeIfAbsent(item.getProduct().getId(),
+                productId -> stockInventory.getAvailable(productId, item.getProduct().getStockQuantity())));
+
+        quantitiesByProduct.forEach((productId, quantity) -> {
+            int available = availableByProduct.get(productId);
+            if (available < quantity) {
+                throw new InsufficientStockException(productId, Math.max(available, 0));
+            }
+        });
     }
 
-    @Transactional(readOnly = true)
-    public List<OrderResponse> getUserOrders() {
-        UUID userId = jwtService.getAuthenticatedUserId();
+    private void decrement(PaymentBatch batch) {
+        if (batch.demandByProduct().isEmpty()) {
+            return;
+        }
 
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new EntityNotFoundException("User not found: " + userId));
+        try {
+            stockInventory.decrement(batch.demandByProduct());
+        } catch (InsufficientStockException e) {
+            List<Order> orders = new ArrayList<>(batch.payable());
+            orders.sort(Comparator.comparing(OrderService::firstProductId, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+            for (Order order : orders) {
+                try {
+                    stockInventory.decrement(OrderItemMapper.toQuantitiesByProduct(order.getItems()));
+                } catch (InsufficientStockException orderException) {
+                    order.setStatus(OrderStatus.CANCELED);
+                    batch.errorsByOrderId().put(order.getId(), orderException.getMessage());
+                }
+            }
+        }
+    }
+
+    private static UUID firstProductId(Order order) {
+        return order.getItems().stream()
+                .map(item -> item.getProduct().getId())
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    private Map<UUID, ProductSnapshot> findProductsById(List<CreateOrderRequest> requests) {
+        Set<UUID> productIds = requests.stream()
+                .flatMap(request -> request.items().stream())
+                .map(OrderItemRequest::productId)
+                .collect(Collectors.toSet());
+
+        return productCache.getAll(productIds);
+    }
+
+    private Order buildOrder(User user, CreateOrderRequest request, Map<UUID, ProductSnapshot> productsById) {
+        List<OrderItem> orderItems;
+        long totalCents = 0;
+
+        try {
+            Map<UUID, Integer> quantitiesByProduct = OrderItemMapper.toRequestedQuantitiesByProduct(request.items());
+
+            validateProducts(quantitiesByProduct.keySet(), productsById);
+
+            orderItems = new ArrayList<>(quantitiesByProduct.size());
+            for (Map.Entry<UUID, Integer> entry : quantitiesByProduct.entrySet()) {
+                ProductSnapshot product = productsById.get(entry.getKey());
+                long priceCents = Money.toCents(product.price());
+
+                totalCents = Money.plus(totalCents, Money.times(priceCents, entry.getValue()));
+
+                OrderItem orderItem = OrderItemMapper.toEntity(
+                        productRepository.getReferenceById(product.id()), product, entry.getValue(), priceCents);
+                orderItems.add(orderItem);
+            }
+        } catch (ArithmeticException e) {
+            throw new BusinessException("Order total exceeds the maximum supported amount");
+        }
+
+        if (totalCents > Money.MAX_CENTS) {
+            throw new BusinessException("Order total exceeds the maximum supported amount");
+        }
+
+        Order order = OrderMapper.toEntity(user, totalCents);
+        orderItems.forEach(item -> item.setOrder(order));
+        order.setItems(orderItems);
+        return order;
+    }
+
+    private static void validateProducts(Set<UUID> productIds, Map<UUID, ProductSnapshot> productsById) {
+        List<UUID> notFound = new ArrayList<>();
+        List<UUID> inactive = new ArrayList<>();
+
+        for (UUID productId : productIds) {
+            ProductSnapshot product = productsById.get(productId);
+            if (product == null) {
+                notFound.add(productId);
+            } else if (!ProductStatus.ACTIVE.equals(product.status())) {
+                inactive.add(productId);
+            }
+        }
+
+        if (!notFound.isEmpty()) {
+            String message = "Product not found: " + joinIds(notFound);
+            if (!inactive.isEmpty()) {
+                message += "; Product is not active: " + joinIds(inactive);
+            }
+            throw new EntityNotFoundException(message);
+        }
+
+        if (!inactive.isEmpty()) {
+            throw new BusinessException("Product is not active: " + joinIds(inactive));
+        }
+    }
+
+    private static String joinIds(List<UUID> ids) {
+        return ids.stream().map(UUID::toString).collect(Collectors.joining(", "));
+    }
 
-        return orderRepository.findAllByUserId(user.getId()).stream()
-                .map(OrderMapper::toResponse)
-                .collect(Collectors.toList());
+    private record PaymentBatch(List<Order> processed, List<Order> payable, Map<UUID, Integer> demandByProduct,
+                                Map<UUID, String> errorsByOrderId) {
     }
 }
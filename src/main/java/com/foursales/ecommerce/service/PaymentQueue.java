@@ -0,0 +1,214 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.enums.PaymentStatus;
+import com.foursales.ecommerce.exceptions.PaymentQueueFullException;
+import com.foursales.ecommerce.mapper.PaymentMapper;
+import com.foursales.ecommerce.resource.response.PaymentStatusResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class PaymentQueue {
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private final OrderService orderService;
+    private final PropertiesConfig.Payment properties;
+
+    private final BlockingQueue<PaymentCommand> queue;
+    private final Map<UUID, PaymentStatusResponse> queued = new ConcurrentHashMap<>();
+    private final Cache<UUID, PaymentStatusResponse> statuses;
+
+    private final Counter rejected;
+    private final Timer latency;
+    private final Timer batchDuration;
+
+    private volatile boolean running;
+    private ExecutorService workers;
+
+    public PaymentQueue(OrderService orderService, PropertiesConfig propertiesConfig, MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.properties = propertiesConfig.getPayment();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(properties.getStatusMaxEntries())
+                .expireAfterWrite(properties.getStatusTtl())
+                .build();
+
+        Gauge.builder("payment.queue.depth", queue, BlockingQueue::size)
+                .description("Payments waiting to be processed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("payment.queue.rejected")
+                .description("Payments rejected because the queue was full")
+                .register(meterRegistry);
+        this.latency = Timer.builder("payment.queue.latency")
+                .description("Time a payment waited in the queue before being processed")
+                .register(meterRegistry);
+        this.batchDuration = Timer.builder("payment.batch.duration")
+                .description("Time spent paying one batch of queued orders")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isAsync();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled() || running) {
+            return;
+        }
+        running = true;
+        workers = Executors.newFixedThreadPool(properties.getWorkers(), new CustomizableThreadFactory("payment-worker-"));
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.submit(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Payment workers did not finish in time; {} queued payments were left pending", queue.size());
+            workers.shutdownNow();
+        }
+    }
+
+    public PaymentStatusResponse submit(UUID orderId) {
+        PaymentStatusResponse submitted = PaymentMapper.toResponse(orderId, PaymentStatus.QUEUED, null);
+        PaymentStatusResponse[] settled = new PaymentStatusResponse[1];
+        PaymentStatusResponse current = queued.computeIfAbsent(orderId, id -> {
+            settled[0] = statuses.getIfPresent(id);
+            return settled[0] == null ? submitted : null;
+        });
+        if (current == null) {
+            return settled[0];
+        }
+        if (current != submitted) {
+            return current;
+        }
+
+        if (!queue.offer(new PaymentCommand(orderId, System.nanoTime()))) {
+            queued.remove(orderId, submitted);
+            rejected.increment();
+            throw new PaymentQueueFullException("Payment queue is full, try again later");
+        }
+        return submitted;
+    }
+
+    public PaymentStatusResponse getStatus(UUID orderId) {
+        PaymentStatusResponse status = queued.get(orderId);
+        if (status == null) {
+            status = statuses.getIfPresent(orderId);
+        }
+        if (status == null) {
+            throw new EntityNotFoundException("Payment not found: " + orderId);
+        }
+        return status;
+    }
+
+    private void drain() {
+        List<PaymentCommand> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PaymentCommand first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected failure in payment worker", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void process(List<PaymentCommand> batch) {
+        long now = System.nanoTime();
+        batch.forEach(command -> latency.record(now - command.enqueuedAt(), TimeUnit.NANOSECONDS));
+
+        List<UUID> orderIds = batch.stream().map(PaymentCommand::orderId).toList();
+        Map<UUID, String> errorsByOrderId = batchDuration.record(() -> payBatch(orderIds));
+        Set<UUID> paidBefore = findPaid(errorsByOrderId.keySet());
+
+        orderIds.forEach(orderId -> {
+            String error = paidBefore.contains(orderId) ? null : errorsByOrderId.get(orderId);
+            statuses.put(orderId, PaymentMapper.toResponse(orderId,
+                    error == null ? PaymentStatus.PAID : PaymentStatus.FAILED, error));
+            queued.remove(orderId);
+        });
+    }
+
+    private Set<UUID> findPaid(Set<UUID> failedOrderIds) {
+        if (failedOrderIds.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            return new HashSet<>(orderService.findPaidOrderIds(failedOrderIds));
+        } catch (RuntimeException e) {
+            log.warn("Could not check the status of {} failed payments", failedOrderIds.size(), e);
+            return Set.of();
+        }
+    }
+
+    private Map<UUID, String> payBatch(List<UUID> orderIds) {
+        try {
+            return orderService.payOrders(orderIds);
+        } catch (RuntimeException e) {
+            log.warn("Payment batch of {} orders failed, retrying one by one", orderIds.size(), e);
+            return payIndividually(orderIds);
+        }
+    }
+
+    private Map<UUID, String> payIndividually(List<UUID> orderIds) {
+        Map<UUID, String> errorsByOrderId = new HashMap<>();
+        for (UUID orderId : orderIds) {
+            try {
+                orderService.payOrder(orderId);
+            } catch (RuntimeException e) {
+                errorsByOrderId.put(orderId, e.getMessage());
+            }
+        }
+        return errorsByOrderId;
+    }
+
+    record PaymentCommand(UUID orderId, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.dto.ProductSnapshot;
+import com.foursales.ecommerce.mapper.ProductMapper;
+import com.foursales.ecommerce.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class ProductCache {
+
+    private static final String CACHE_NAME = "products";
+
+    private final ProductRepository productRepository;
+    private final Cache<UUID, ProductSnapshot> snapshots;
+    private final AtomicLong catalogVersion = new AtomicLong(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
+    public ProductCache(ProductRepository productRepository, PropertiesConfig propertiesConfig,
+                        MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+
+        PropertiesConfig.ProductCache properties = propertiesConfig.getProductCache();
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, CACHE_NAME);
+    }
+
+    public Optional<ProductSnapshot> get(UUID id) {
+        return Optional.ofNullable(snapshots.get(id, key -> productRepository.findById(key)
+                .map(ProductMapper::toSnapshot)
+                .orElse(null)));
+    }
+
+    public Map<UUID, ProductSnapshot> getAll(Collection<UUID> ids) {
+        return snapshots.getAll(ids, this::load);
+    }
+
+    public void evict(Collection<UUID> ids) {
+        List<UUID> evicted = List.copyOf(ids);
+        TransactionCallbacks.afterCommit(() -> {
+            snapshots.invalidateAll(evicted);
+            catalogVersion.incrementAndGet();
+        });
+    }
+
+    /** Moves forward only when a product write commits. */
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    private Map<UUID, ProductSnapshot> load(Set<? extends UUID> ids) {
+        return productRepository.findAllById(List.copyOf(ids)).stream()
+                .map(ProductMapper::toSnapshot)
+                .collect(Collectors.toMap(ProductSnapshot::id, Function.identity()));
+    }
+}
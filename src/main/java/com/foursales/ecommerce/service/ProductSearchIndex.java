@@ -0,0 +1,276 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.dto.ProductSnapshot;
+import com.foursales.ecommerce.repository.ProductRepository;
+import com.foursales.ecommerce.util.TextTokenizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ProductRepository productRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final Map<UUID, Integer> documentByProduct = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private UUID[] products = new UUID[INITIAL_CAPACITY];
+    private int documents;
+    private int deleted;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /** Searches wait for the startup load instead of seeing a partial catalog. */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try (Stream<ProductSnapshot> snapshots = productRepository.streamSearchSnapshots()) {
+            clear();
+            snapshots.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} products for search in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void index(ProductSnapshot product) {
+        lock.writeLock().lock();
+        try {
+            delete(product.id());
+            add(product);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents - deleted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<UUID> search(String query, int limit) {
+        List<String> terms = List.copyOf(new LinkedHashSet<>(TextTokenizer.tokenize(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[terms.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postingsByTerm.get(terms.get(i));
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(postings -> postings.size));
+
+            return rank(lists, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<UUID> rank(Postings[] lists, int limit) {
+        int liveDocuments = documents - deleted;
+        double[] idf = new double[lists.length];
+        double bestPossible = 0;
+        for (int i = 0; i < lists.length; i++) {
+            idf[i] = Math.log(1.0 + (double) liveDocuments / lists[i].size);
+            bestPossible += lists[i].maxFrequency * idf[i];
+        }
+
+        PriorityQueue<ScoredDocument> top = new PriorityQueue<>(limit + 1, ScoredDocument.WORST_FIRST);
+        int[] cursors = new int[lists.length];
+        Postings rarest = lists[0];
+
+        for (int position = 0; position < rarest.size; position++) {
+            // Documents are visited in ascending order and ties go to the lower number, so once the
+            // worst kept score reaches the best any document could get, nothing later can enter.
+            if (top.size() == limit && top.peek().score() >= bestPossible) {
+                break;
+            }
+
+            int document = rarest.documents[position];
+            if (!live.get(document)) {
+                continue;
+            }
+
+            double score = rarest.frequencies[position] * idf[0];
+            for (int i = 1; i < lists.length && score > 0; i++) {
+                int found = lists[i].seek(cursors[i], document);
+                if (found < 0) {
+                    cursors[i] = -found - 1;
+                    score = 0;
+                } else {
+                    cursors[i] = found;
+                    score += lists[i].frequencies[found] * idf[i];
+                }
+            }
+
+            if (score > 0 && (top.size() < limit || score > top.peek().score())) {
+                top.offer(new ScoredDocument(document, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        List<ScoredDocument> ranked = new ArrayList<>(top);
+        ranked.sort(ScoredDocument.WORST_FIRST.reversed());
+        return ranked.stream().map(scored -> products[scored.document()]).toList();
+    }
+
+    private void add(ProductSnapshot product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        TextTokenizer.tokenize(product.name()).forEach(term -> frequencies.merge(term, NAME_WEIGHT, Integer::sum));
+        TextTokenizer.tokenize(product.category()).forEach(term -> frequencies.merge(term, CATEGORY_WEIGHT, Integer::sum));
+        TextTokenizer.tokenize(product.description())
+                .forEach(term -> frequencies.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+        int document = documents++;
+        if (document == products.length) {
+            products = Arrays.copyOf(products, products.length * 2);
+        }
+        products[document] = product.id();
+        documentByProduct.put(product.id(), document);
+        live.set(document);
+
+        frequencies.forEach((term, frequency) ->
+                postingsByTerm.computeIfAbsent(term, key -> new Postings()).add(document, frequency));
+    }
+
+    private void delete(UUID productId) {
+        Integer document = documentByProduct.remove(productId);
+        if (document != null) {
+            live.clear(document);
+            products[document] = null;
+            deleted++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deleted == 0 || deleted <= (documents - deleted) / 4) {
+            return;
+        }
+
+        int[] renumbered = new int[documents];
+        UUID[] compacted = new UUID[Math.max(INITIAL_CAPACITY, documents - deleted)];
+        int next = 0;
+        for (int document = live.nextSetBit(0); document >= 0; document = live.nextSetBit(document + 1)) {
+            renumbered[document] = next;
+            compacted[next] = products[document];
+            documentByProduct.put(products[document], next);
+            next++;
+        }
+
+        postingsByTerm.values().removeIf(postings -> postings.retain(live, renumbered) == 0);
+        products = compacted;
+        documents = next;
+        deleted = 0;
+        live.clear();
+        live.set(0, next);
+    }
+
+    private void clear() {
+        postingsByTerm.clear();
+        documentByProduct.clear();
+        live.clear();
+        products = new UUID[INITIAL_CAPACITY];
+        documents = 0;
+        deleted = 0;
+    }
+
+    private static final class Postings {
+
+        private int[] documents = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        private int maxFrequency;
+
+        void add(int document, int frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            maxFrequency = Math.max(maxFrequency, frequency);
+            size++;
+        }
+
+        /** Returns the position like {@link Arrays#binarySearch}. */
+        int seek(int from, int document) {
+            int step = 1;
+            int high = from;
+            while (high < size && documents[high] < document) {
+                from = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            return Arrays.binarySearch(documents, from, Math.min(high + 1, size), document);
+        }
+
+        int retain(BitSet live, int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (live.get(documents[i])) {
+                    documents[kept] = renumbered[documents[i]];
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+
+    private record ScoredDocument(int document, double score) {
+
+        static final Comparator<ScoredDocument> WORST_FIRST = Comparator.comparingDouble(ScoredDocument::score)
+                .thenComparing(Comparator.comparingInt(ScoredDocument::document).reversed());
+    }
+}
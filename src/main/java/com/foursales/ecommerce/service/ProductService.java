@@ -1,31 +1,51 @@
 package com.foursales.ecommerce.service;
 
+import com.foursales.ecommerce.dto.ProductCursor;
+import com.foursales.ecommerce.dto.ProductFilter;
+import com.foursales.ecommerce.dto.ProductSnapshot;
 import com.foursales.ecommerce.entity.Product;
 import com.foursales.ecommerce.enums.ProductStatus;
+import com.foursales.ecommerce.exceptions.BusinessException;
+import com.foursales.ecommerce.mapper.CursorMapper;
 import com.foursales.ecommerce.mapper.ProductMapper;
 import com.foursales.ecommerce.repository.ProductRepository;
+import com.foursales.ecommerce.repository.ProductSpecifications;
 import com.foursales.ecommerce.resource.request.CreateProductRequest;
 import com.foursales.ecommerce.resource.request.UpdateProductRequest;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
 import com.foursales.ecommerce.resource.response.ProductResponse;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ProductRepository productRepository;
+    private final StockInventory stockInventory;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
 
     @Transactional
     public ProductResponse create(CreateProductRequest request) {
         Product product = ProductMapper.toEntity(request);
         productRepository.save(product);
+        productCache.evict(List.of(product.getId()));
+        TransactionCallbacks.afterCommit(() -> stockInventory.reset(product.getId(), product.getStockQuantity()));
+        ProductSnapshot snapshot = ProductMapper.toSnapshot(product);
+        TransactionCallbacks.afterCommit(() -> productSearchIndex.index(snapshot));
         return ProductMapper.toResponse(product);
     }
 
@@ -33,6 +53,12 @@ public class ProductService {
     public ProductResponse update(UUID id, UpdateProductRequest request) {
         return productRepository.findById(id).map(product -> {
             product.updateFrom(request);
+            productCache.evict(List.of(id));
+            ProductSnapshot snapshot = ProductMapper.toSnapshot(product);
+            TransactionCallbacks.afterCommit(() -> productSearchIndex.index(snapshot));
+            if (request.stockQuantity() != null) {
+                TransactionCallbacks.afterCommit(() -> stockInventory.reset(id, product.getStockQuantity()));
+            }
             return ProductMapper.toResponse(product);
         }).orElseThrow(() -> new EntityNotFoundException("Product not found: " + id));
     }
@@ -42,16 +68,70 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found: " + id));
         product.setStatus(ProductStatus.INACTIVE);
+        productCache.evict(List.of(id));
+        TransactionCallbacks.afterCommit(() -> productSearchIndex.remove(id));
     }
 
     @Transactional(readOnly = true)
-    public Page<ProductResponse> findAll(Pageable pageable) {
-        return productRepository.findAll(pageable).map(ProductMapper::toResponse);
+    public Page<ProductResponse> findAll(ProductFilter filter, Pageable pageable) {
+        validatePriceRange(filter);
+
+        return productRepository.findAll(ProductSpecifications.matching(filter), pageable)
+                .map(ProductMapper::toResponse);
     }
 
     @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> findAllAfter(ProductFilter filter, String after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        validatePriceRange(filter);
+
+        ProductCursor cursor = after == null || after.isBlank() ? null : CursorMapper.toProductCursor(after);
+        Specification<Product> specification = ProductSpecifications.matching(filter)
+                .and(ProductSpecifications.after(cursor));
+        List<Product> rows = productRepository.findBy(specification,
+                query -> query.sortBy(ProductSpecifications.KEYSET_ORDER).limit(size + 1).all());
+
+        return ProductMapper.toCursorPageResponse(rows, size);
+    }
+
+    public String getETag(UUID id) {
+        return productCache.get(id).map(ProductMapper::toETag)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found: " + id));
+    }
+
+    public String getCatalogETag() {
+        return ProductMapper.toCatalogETag(productCache.getCatalogVersion());
+    }
+
     public ProductResponse findById(UUID id) {
-        return productRepository.findById(id).map(ProductMapper::toResponse)
+        return productCache.get(id).map(ProductMapper::toResponse)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found: " + id));
     }
+
+    public List<ProductResponse> search(String query, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<UUID> ids = productSearchIndex.search(query, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, ProductSnapshot> snapshots = productCache.getAll(ids);
+        return ids.stream()
+                .map(snapshots::get)
+                .filter(Objects::nonNull)
+                .map(ProductMapper::toResponse)
+                .toList();
+    }
+
+    private static void validatePriceRange(ProductFilter filter) {
+        if (filter.minPrice() != null && filter.maxPrice() != null
+                && filter.minPrice().compareTo(filter.maxPrice()) > 0) {
+            throw new BusinessException("minPrice must not be greater than maxPrice");
+        }
+    }
 }
@@ -0,0 +1,251 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.inventory.mode", havingValue = "single-writer")
+public class SingleWriterStockInventory implements DetachedStockInventory {
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PropertiesConfig.Inventory properties;
+
+    private final List<BlockingQueue<StockCommand>> queues;
+    private final List<Thread> writers;
+
+    private final Counter commands;
+    private final Counter updates;
+
+    private volatile boolean running = true;
+
+    public SingleWriterStockInventory(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+                                      PropertiesConfig propertiesConfig, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = propertiesConfig.getInventory();
+
+        int partitions = properties.getWriterPartitions();
+        this.queues = new ArrayList<>(partitions);
+        this.writers = new ArrayList<>(partitions);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("stock-writer-");
+        threadFactory.setDaemon(true);
+        for (int i = 0; i < partitions; i++) {
+            BlockingQueue<StockCommand> queue = new LinkedBlockingQueue<>();
+            Thread writer = threadFactory.newThread(() -> drain(queue));
+            queues.add(queue);
+            writers.add(writer);
+            writer.start();
+        }
+
+        Gauge.builder("inventory.single-writer.queue.depth", queues,
+                        q -> q.stream().mapToInt(BlockingQueue::size).sum())
+                .description("Stock commands waiting for their writer")
+                .register(meterRegistry);
+        this.commands = Counter.builder("inventory.single-writer.commands")
+                .description("Stock commands applied by the writers")
+                .register(meterRegistry);
+        this.updates = Counter.builder("inventory.single-writer.updates")
+                .description("UPDATE statements issued by the writers after coalescing")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        long deadline = System.currentTimeMillis() + properties.getWriterTimeout().toMillis();
+        for (Thread writer : writers) {
+            writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+        }
+    }
+
+    @Override
+    public int getAvailable(UUID productId, int persistedQuantity) {
+        return persistedQuantity;
+    }
+
+    @Override
+    public void decrement(Map<UUID, Integer> quantitiesByProduct) {
+        Map<UUID, CompletableFuture<Boolean>> results = new LinkedHashMap<>();
+        quantitiesByProduct.forEach((productId, quantity) ->
+                results.put(productId, submit(new StockCommand(productId, quantity, true))));
+
+        Map<UUID, Integer> decremented = new LinkedHashMap<>();
+        UUID shortProductId = null;
+        RuntimeException failure = null;
+
+        for (Map.Entry<UUID, CompletableFuture<Boolean>> entry : results.entrySet()) {
+            UUID productId = entry.getKey();
+            int quantity = quantitiesByProduct.get(productId);
+            try {
+                if (await(entry.getValue())) {
+                    decremented.put(productId, quantity);
+                } else if (shortProductId == null) {
+                    shortProductId = productId;
+                }
+            } catch (RuntimeException e) {
+                entry.getValue().thenAccept(applied -> {
+                    if (applied) {
+                        restore(productId, quantity);
+                    }
+                });
+                failure = failure == null ? e : failure;
+            }
+        }
+
+        if (failure != null || shortProductId != null) {
+            decremented.forEach(this::restore);
+            if (failure != null) {
+                throw failure;
+            }
+            throw new InsufficientStockException(shortProductId,
+                    productRepository.findStockQuantityById(shortProductId).orElse(0));
+        }
+    }
+
+    @Override
+    public void reset(UUID productId, int stockQuantity) {
+    }
+
+    @Override
+    public void restore(Map<UUID, Integer> quantitiesByProduct) {
+        quantitiesByProduct.forEach(this::restore);
+    }
+
+    private void restore(UUID productId, int quantity) {
+        submit(new StockCommand(productId, quantity, false));
+    }
+
+    private CompletableFuture<Boolean> submit(StockCommand command) {
+        queues.get(Math.floorMod(command.productId().hashCode(), queues.size())).add(command);
+        return command.result();
+    }
+
+    private boolean await(CompletableFuture<Boolean> result) {
+        try {
+            return result.get(properties.getWriterTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the stock writer", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for the stock writer", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Stock writer failed", e.getCause());
+        }
+    }
+
+    private void drain(BlockingQueue<StockCommand> queue) {
+        List<StockCommand> batch = new ArrayList<>(properties.getWriterBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                StockCommand first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getWriterBatchSize() - 1);
+                apply(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to apply {} stock commands", batch.size(), e);
+                batch.forEach(command -> command.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void apply(List<StockCommand> batch) {
+        Map<UUID, List<StockCommand>> commandsByProduct = new LinkedHashMap<>();
+        batch.forEach(command ->
+                commandsByProduct.computeIfAbsent(command.productId(), id -> new ArrayList<>()).add(command));
+
+        Map<StockCommand, Boolean> outcomes = transactionTemplate.execute(status -> {
+            Map<StockCommand, Boolean> applied = new IdentityHashMap<>();
+            commandsByProduct.forEach((productId, commands) -> applyInOrder(productId, commands, applied));
+            return applied;
+        });
+
+        commands.increment(batch.size());
+        batch.forEach(command -> command.result().complete(outcomes.get(command)));
+    }
+
+    private void applyInOrder(UUID productId, List<StockCommand> commands, Map<StockCommand, Boolean> applied) {
+        List<StockCommand> decrements = new ArrayList<>();
+        for (StockCommand command : commands) {
+            if (command.decrement()) {
+                decrements.add(command);
+                continue;
+            }
+            applyDecrements(productId, decrements, applied);
+            decrements.clear();
+
+            productRepository.incrementStock(productId, command.quantity());
+            updates.increment();
+            applied.put(command, true);
+        }
+        applyDecrements(productId, decrements, applied);
+    }
+
+    private void applyDecrements(UUID productId, List<StockCommand> decrements, Map<StockCommand, Boolean> applied) {
+        if (decrements.isEmpty()) {
+            return;
+        }
+
+        int total = decrements.stream().mapToInt(StockCommand::quantity).sum();
+        updates.increment();
+        if (productRepository.decrementStock(productId, total) > 0) {
+            decrements.forEach(command -> applied.put(command, true));
+            return;
+        }
+
+        if (decrements.size() == 1) {
+            applied.put(decrements.get(0), false);
+            return;
+        }
+
+        for (StockCommand command : decrements) {
+            updates.increment();
+            applied.put(command, productRepository.decrementStock(productId, command.quantity()) > 0);
+        }
+    }
+
+    record StockCommand(UUID productId, int quantity, boolean decrement, CompletableFuture<Boolean> result) {
+
+        StockCommand(UUID productId, int quantity, boolean decrement) {
+            this(productId, quantity, decrement, new CompletableFuture<>());
+        }
+    }
+}
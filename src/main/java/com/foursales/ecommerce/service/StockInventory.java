@@ -0,0 +1,13 @@
+package com.foursales.ecommerce.service;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface StockInventory {
+
+    int getAvailable(UUID productId, int persistedQuantity);
+
+    void decrement(Map<UUID, Integer> quantitiesByProduct);
+
+    void reset(UUID productId, int stockQuantity);
+}
@@ -0,0 +1,42 @@
+package com.foursales.ecommerce.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class StockReservationLedger {
+
+    private final Map<UUID, Integer> reservedByProduct = new ConcurrentHashMap<>();
+
+    public boolean tryReserve(UUID productId, int quantity, int stockQuantity) {
+        boolean[] reserved = {false};
+        reservedByProduct.compute(productId, (id, current) -> {
+            int alreadyReserved = current == null ? 0 : current;
+            if (alreadyReserved + quantity > stockQuantity) {
+                return current;
+            }
+            reserved[0] = true;
+            return alreadyReserved + quantity;
+        });
+        return reserved[0];
+    }
+
+    public void release(UUID productId, int quantity) {
+        reservedByProduct.computeIfPresent(productId, (id, current) -> {
+            int remaining = current - quantity;
+            return remaining > 0 ? remaining : null;
+        });
+    }
+
+    public int getReserved(UUID productId) {
+        return reservedByProduct.getOrDefault(productId, 0);
+    }
+
+    public void reset(Map<UUID, Integer> reserved) {
+        reservedByProduct.clear();
+        reservedByProduct.putAll(reserved);
+    }
+}
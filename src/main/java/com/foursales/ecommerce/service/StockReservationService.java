@@ -0,0 +1,139 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.dto.ProductSnapshot;
+import com.foursales.ecommerce.dto.ReservedQuantityDTO;
+import com.foursales.ecommerce.entity.Order;
+import com.foursales.ecommerce.entity.StockReservation;
+import com.foursales.ecommerce.exceptions.BusinessException;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.mapper.OrderItemMapper;
+import com.foursales.ecommerce.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final StockReservationLedger stockReservationLedger;
+    private final StockInventory stockInventory;
+    private final ProductCache productCache;
+    private final PropertiesConfig propertiesConfig;
+
+    @Transactional(noRollbackFor = BusinessException.class)
+    public void reserve(Order order) {
+        hold(order);
+        record(List.of(order));
+    }
+
+    public void hold(Order order) {
+        Map<UUID, Integer> quantitiesByProduct = reserveInLedger(order);
+        TransactionCallbacks.afterRollback(() -> quantitiesByProduct.forEach(stockReservationLedger::release));
+    }
+
+    @Transactional
+    public void record(Collection<Order> orders) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(propertiesConfig.getReservation().getTtl());
+
+        List<StockReservation> reservations = orders.stream()
+                .flatMap(order -> OrderItemMapper.toQuantitiesByProduct(order.getItems()).entrySet().stream()
+                        .map(entry -> StockReservation.builder()
+                                .orderId(order.getId())
+                                .productId(entry.getKey())
+                                .quantity(entry.getValue())
+                                .expiresAt(expiresAt)
+                                .build()))
+                .toList();
+
+        stockReservationRepository.saveAll(reservations);
+    }
+
+    @Transactional(noRollbackFor = BusinessException.class)
+    public void confirm(Order order) {
+        List<StockReservation> reservations = stockReservationRepository.findAllByOrderId(order.getId());
+
+        if (reservations.isEmpty() || remove(reservations) == 0) {
+            Map<UUID, Integer> quantitiesByProduct = reserveInLedger(order);
+            TransactionCallbacks.afterCompletion(committed -> quantitiesByProduct.forEach(stockReservationLedger::release));
+        }
+    }
+
+    @Transactional
+    public void release(Order order) {
+        List<StockReservation> reservations = stockReservationRepository.findAllByOrderId(order.getId());
+        if (!reservations.isEmpty()) {
+            remove(reservations);
+        }
+    }
+
+    @Transactional
+    public void release(Collection<UUID> orderIds) {
+        List<StockReservation> reservations = stockReservationRepository.findAllByOrderIdIn(orderIds);
+        if (!reservations.isEmpty()) {
+            remove(reservations);
+        }
+    }
+
+    @Transactional
+    public int releaseExpired(int batchSize) {
+        List<StockReservation> expired = stockReservationRepository
+                .findAllByExpiresAtLessThanEqualOrderByExpiresAt(LocalDateTime.now(), Limit.of(batchSize));
+
+        return expired.isEmpty() ? 0 : remove(expired);
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildLedger() {
+        Map<UUID, Integer> reserved = stockReservationRepository.sumActiveQuantityByProduct(LocalDateTime.now())
+                .stream()
+                .collect(Collectors.toMap(ReservedQuantityDTO::getProductId, dto -> dto.getQuantity().intValue()));
+
+        stockReservationLedger.reset(reserved);
+    }
+
+    private Map<UUID, Integer> reserveInLedger(Order order) {
+        Map<UUID, Integer> quantitiesByProduct = OrderItemMapper.toQuantitiesByProduct(order.getItems());
+        Map<UUID, ProductSnapshot> productsById = productCache.getAll(quantitiesByProduct.keySet());
+
+        Map<UUID, Integer> reserved = new LinkedHashMap<>();
+        for (Map.Entry<UUID, Integer> entry : quantitiesByProduct.entrySet()) {
+            UUID productId = entry.getKey();
+            ProductSnapshot product = productsById.get(productId);
+            int stockQuantity = stockInventory.getAvailable(productId, product == null ? 0 : product.stockQuantity());
+
+            if (!stockReservationLedger.tryReserve(productId, entry.getValue(), stockQuantity)) {
+                reserved.forEach(stockReservationLedger::release);
+                int available = Math.max(0, stockQuantity - stockReservationLedger.getReserved(productId));
+                throw new InsufficientStockException(productId, available);
+            }
+
+            reserved.put(productId, entry.getValue());
+        }
+        return reserved;
+    }
+
+    /** Releases only the rows this transaction deleted, so a racing removal does not release them twice. */
+    private int remove(List<StockReservation> reservations) {
+        List<StockReservation> removed = reservations.stream()
+                .filter(reservation -> stockReservationRepository.removeById(reservation.getId()) == 1)
+                .toList();
+        TransactionCallbacks.afterCommit(() -> removed.forEach(reservation ->
+                stockReservationLedger.release(reservation.getProductId(), reservation.getQuantity())));
+        return removed.size();
+    }
+}
@@ -0,0 +1,42 @@
+package com.foursales.ecommerce.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    public static void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    public static void afterCommit(Runnable callback) {
+        afterCompletion(committed -> {
+            if (committed) {
+                callback.run();
+            }
+        });
+    }
+
+    public static void afterRollback(Runnable callback) {
+        afterCompletion(committed -> {
+            if (!committed) {
+                callback.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.foursales.ecommerce.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    /** Largest amount that fits a {@code DECIMAL(10,2)} column. */
+    public static final long MAX_CENTS = 9_999_999_999L;
+
+    private Money() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        if (Math.abs(cents) > MAX_CENTS) {
+            throw new ArithmeticException("Amount out of DECIMAL(10,2) range: " + cents + " cents");
+        }
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long times(long cents, int quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    public static long plus(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+}
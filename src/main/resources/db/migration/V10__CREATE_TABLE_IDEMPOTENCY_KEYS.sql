@@ -0,0 +1,9 @@
+-- IDEMPOTENCY_KEYS
+CREATE TABLE idempotency_keys (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    fingerprint INT NOT NULL,
+    response TEXT NOT NULL,
+    created_at DATETIME NOT NULL,
+    expires_at DATETIME NOT NULL,
+    INDEX idx_idempotency_expires_at (expires_at)
+);
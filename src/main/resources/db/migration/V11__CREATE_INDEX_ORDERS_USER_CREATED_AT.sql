@@ -0,0 +1,2 @@
+-- ORDERS
+CREATE INDEX idx_orders_user_created_at ON orders (user_id, created_at);
@@ -0,0 +1,2 @@
+-- ORDERS
+CREATE INDEX idx_orders_status_created_at ON orders (status, created_at);
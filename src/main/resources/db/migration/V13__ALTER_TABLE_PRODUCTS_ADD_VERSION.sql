@@ -0,0 +1,2 @@
+-- PRODUCTS
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
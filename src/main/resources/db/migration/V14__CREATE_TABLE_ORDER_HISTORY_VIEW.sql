@@ -0,0 +1,32 @@
+-- ORDER_HISTORY_VIEW
+CREATE TABLE order_history_view (
+    order_id BINARY(16) NOT NULL PRIMARY KEY,
+    user_id BINARY(16) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at DATETIME NOT NULL,
+    document JSON NOT NULL,
+    INDEX idx_order_history_user_created_at (user_id, created_at, order_id)
+);
+
+INSERT INTO order_history_view (order_id, user_id, status, created_at, document)
+SELECT
+    o.id,
+    o.user_id,
+    o.status,
+    o.created_at,
+    JSON_OBJECT(
+        'id', BIN_TO_UUID(o.id),
+        'status', o.status,
+        'totalPrice', o.total_price,
+        'items', COALESCE((
+            SELECT JSON_ARRAYAGG(JSON_OBJECT(
+                'productId', BIN_TO_UUID(i.product_id),
+                'productName', p.name,
+                'quantity', i.quantity,
+                'price', i.price))
+            FROM order_items i
+            LEFT JOIN products p ON p.id = i.product_id
+            WHERE i.order_id = o.id
+        ), JSON_ARRAY())
+    )
+FROM orders o;
@@ -0,0 +1,2 @@
+-- ORDER_ITEMS
+ALTER TABLE order_items ADD COLUMN product_name VARCHAR(255) NULL;
@@ -0,0 +1,5 @@
+-- ORDERS
+-- InnoDB appends the primary key to every secondary index, so each of these also serves the
+-- (created_at, id) keyset order. Status-only and user-only searches already use the V11/V12 indexes.
+CREATE INDEX idx_orders_created_at ON orders (created_at);
+CREATE INDEX idx_orders_user_status_created_at ON orders (user_id, status, created_at);
@@ -0,0 +1,5 @@
+-- PRODUCTS
+-- Every product query carries status = 'ACTIVE', so status leads both indexes. Category filters
+-- range-scan price inside one category; unfiltered listings read rows already ordered by name.
+CREATE INDEX idx_products_status_category_price ON products (status, category, price);
+CREATE INDEX idx_products_status_name ON products (status, name);
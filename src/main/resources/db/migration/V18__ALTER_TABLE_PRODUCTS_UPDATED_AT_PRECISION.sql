@@ -0,0 +1,5 @@
+-- PRODUCTS
+-- updated_at drives the catalog ETag, so two writes within the same second must not share a value,
+-- and MAX(updated_at) must be a single index lookup.
+ALTER TABLE products MODIFY COLUMN updated_at DATETIME(6) NOT NULL;
+CREATE INDEX idx_products_updated_at ON products (updated_at);
@@ -0,0 +1,7 @@
+-- PRODUCTS
+-- Listings are sorted by name (then id, which InnoDB appends to every secondary index), so a
+-- category page reads (status, category, name) in order and stops after the page instead of
+-- filesorting the whole category. A price range on top is filtered while walking it.
+-- Still filesorted: sort=name with only a price range (read in order from (status, name), but
+-- filtered row by row), and any sort other than name or, within one category, price.
+CREATE INDEX idx_products_status_category_name ON products (status, category, name);
@@ -0,0 +1,4 @@
+-- IDEMPOTENCY_KEYS
+-- Fingerprints become the SHA-256 of the request body in hex. Rows stored with the old INT hash
+-- never match a new fingerprint, so a retry of one is rejected instead of replayed or executed again.
+ALTER TABLE idempotency_keys MODIFY COLUMN fingerprint CHAR(64) NOT NULL;
@@ -0,0 +1,12 @@
+-- STOCK_RESERVATIONS
+CREATE TABLE stock_reservations (
+    id BINARY(16) NOT NULL PRIMARY KEY,
+    order_id BINARY(16) NOT NULL,
+    product_id BINARY(16) NOT NULL,
+    quantity INT NOT NULL,
+    expires_at DATETIME NOT NULL,
+    CONSTRAINT fk_reservation_order FOREIGN KEY (order_id) REFERENCES orders(id),
+    CONSTRAINT fk_reservation_product FOREIGN KEY (product_id) REFERENCES products(id),
+    INDEX idx_reservation_order (order_id),
+    INDEX idx_reservation_expires_at (expires_at)
+);
@@ -0,0 +1,35 @@
+package com.foursales.ecommerce.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs {@link MoneyBenchmark} through the JMH runner. Excluded from the default build; run with
+ * {@code mvn test -Pbenchmark -Dtest=MoneyBenchmarkTest}.
+ */
+@Tag("benchmark")
+class MoneyBenchmarkTest {
+
+    @Test
+    @DisplayName("Should compare BigDecimal and cents order totals")
+    void shouldCompareOrderTotals() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MoneyBenchmark.class.getName())
+                .jvmArgsAppend("-cp", System.getProperty("java.class.path"))
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty());
+    }
+}
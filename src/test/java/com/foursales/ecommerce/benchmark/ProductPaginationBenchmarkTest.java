@@ -0,0 +1,135 @@
+package com.foursales.ecommerce.benchmark;
+
+import com.foursales.ecommerce.dto.ProductCursor;
+import com.foursales.ecommerce.dto.ProductFilter;
+import com.foursales.ecommerce.entity.Product;
+import com.foursales.ecommerce.entity.id.UuidV7Generator;
+import com.foursales.ecommerce.repository.ProductRepository;
+import com.foursales.ecommerce.repository.ProductSpecifications;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares offset pages (with their {@code COUNT(*)}) and keyset slices on the first and a deep
+ * page of the catalog. Excluded from the default build; run with
+ * {@code mvn test -Pbenchmark -Dtest=ProductPaginationBenchmarkTest} and tune the catalog with
+ * {@code -Dbenchmark.products} and the depth with {@code -Dbenchmark.deep-page}. Point
+ * {@code spring.datasource.*} at a MySQL instance with the V17 indexes to measure InnoDB rather
+ * than the H2 in-memory B-tree.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductPaginationBenchmarkTest {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000_000);
+    private static final int DEEP_PAGE = Integer.getInteger("benchmark.deep-page", 10_000);
+    private static final int PAGE_SIZE = 20;
+    private static final int BATCH_SIZE = 5_000;
+    private static final int WARMUP = 5;
+    private static final int RUNS = 20;
+
+    private static final ProductFilter NO_FILTER = new ProductFilter(null, null, null);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_products_name_id");
+        jdbcTemplate.execute("DELETE FROM products");
+    }
+
+    @Test
+    @DisplayName("Offset page versus keyset slice on the first and a deep page")
+    void comparePaginationModes() {
+        seed();
+
+        ProductCursor deepCursor = jdbcTemplate.queryForObject(
+                "SELECT name, id FROM products ORDER BY name, id LIMIT 1 OFFSET ?",
+                (rs, row) -> new ProductCursor(rs.getString(1), rs.getObject(2, UUID.class)),
+                (long) (DEEP_PAGE - 1) * PAGE_SIZE - 1);
+
+        measure("offset page 1", () -> offset(0));
+        measure("offset page " + DEEP_PAGE, () -> offset(DEEP_PAGE - 1));
+        measure("keyset page 1", () -> keyset(null));
+        measure("keyset page " + DEEP_PAGE, () -> keyset(deepCursor));
+
+        assertEquals(offset(DEEP_PAGE - 1).stream().map(Product::getId).toList(),
+                keyset(deepCursor).stream().map(Product::getId).toList());
+    }
+
+    private List<Product> offset(int page) {
+        return productRepository.findAll(ProductSpecifications.matching(NO_FILTER),
+                PageRequest.of(page, PAGE_SIZE, ProductSpecifications.KEYSET_ORDER)).getContent();
+    }
+
+    private List<Product> keyset(ProductCursor cursor) {
+        Specification<Product> specification = ProductSpecifications.matching(NO_FILTER)
+                .and(ProductSpecifications.after(cursor));
+        return productRepository.findBy(specification,
+                query -> query.sortBy(ProductSpecifications.KEYSET_ORDER).limit(PAGE_SIZE).all());
+    }
+
+    private void measure(String label, Supplier<List<Product>> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            assertEquals(PAGE_SIZE, query.get().size());
+        }
+        long elapsed = System.nanoTime() - start;
+
+        log.info("[benchmark] {} over {} products: {} ms/query", label, PRODUCTS,
+                String.format("%.2f", elapsed / 1e6 / RUNS));
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < PRODUCTS; i++) {
+            batch.add(new Object[]{UuidV7Generator.nextUuid(), "Produto " + random.nextInt(PRODUCTS / 4),
+                    "description", "10.00", "category", 10, "ACTIVE", now, now, 0L});
+            if (batch.size() == BATCH_SIZE || i == PRODUCTS - 1) {
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO products (id, name, description, price, category, stock_quantity, status,
+                                              created_at, updated_at, version)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """, batch);
+                batch.clear();
+            }
+        }
+        // H2 stores status as an ENUM and will not walk an index in order past an equality on it, so
+        // the benchmark indexes (name, id) directly; MySQL uses V17's (status, name) plus the primary key.
+        jdbcTemplate.execute("CREATE INDEX idx_products_name_id ON products (name, id)");
+    }
+}
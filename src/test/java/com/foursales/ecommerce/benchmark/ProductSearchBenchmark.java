@@ -0,0 +1,73 @@
+package com.foursales.ecommerce.benchmark;
+
+import com.foursales.ecommerce.dto.ProductSnapshot;
+import com.foursales.ecommerce.enums.ProductStatus;
+import com.foursales.ecommerce.service.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of {@link ProductSearchIndex} over a synthetic catalog of one million products,
+ * for a selective two-term query and a broad single-term query. Launched by
+ * {@link ProductSearchBenchmarkTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchBenchmark {
+
+    private static final String[] CATEGORIES = {"Eletrônicos", "Cozinha", "Mercearia", "Esporte", "Livros"};
+    private static final String[] ADJECTIVES = {"azul", "preto", "portátil", "premium", "compacto", "inox"};
+
+    @Param({"1000000"})
+    public int products;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ProductSearchIndex(null);
+        for (int i = 0; i < products; i++) {
+            index.index(new ProductSnapshot(
+                    UUID.randomUUID(),
+                    "Produto " + i % 50_000 + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)],
+                    "Modelo " + random.nextInt(1_000) + " com garantia",
+                    CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    BigDecimal.TEN,
+                    1,
+                    ProductStatus.ACTIVE,
+                    0L,
+                    LocalDateTime.now()));
+        }
+    }
+
+    @Benchmark
+    public List<UUID> selectiveQuery() {
+        return index.search("produto 4242 inox", 20);
+    }
+
+    @Benchmark
+    public List<UUID> broadQuery() {
+        return index.search("cozinha premium", 20);
+    }
+}
@@ -0,0 +1,35 @@
+package com.foursales.ecommerce.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs {@link ProductSearchBenchmark} through the JMH runner. Excluded from the default build; run with
+ * {@code mvn test -Pbenchmark -Dtest=ProductSearchBenchmarkTest}.
+ */
+@Tag("benchmark")
+class ProductSearchBenchmarkTest {
+
+    @Test
+    @DisplayName("Should measure product search latency over a large catalog")
+    void shouldMeasureSearchLatency() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getName())
+                .jvmArgsAppend("-cp", System.getProperty("java.class.path"))
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty());
+    }
+}
@@ -0,0 +1,94 @@
+package com.foursales.ecommerce.benchmark;
+
+import com.foursales.ecommerce.entity.id.UuidV7Generator;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares insert throughput of random (v4) and time-ordered (v7) primary keys on a table that
+ * already holds a large number of rows. Excluded from the default build; run with
+ * {@code mvn test -Pbenchmark} and tune the sizes with {@code -Dbenchmark.seed-rows} and
+ * {@code -Dbenchmark.insert-rows}. Point {@code spring.datasource.*} at a MySQL instance to measure
+ * InnoDB page splits rather than the H2 in-memory B-tree.
+ */
+@Slf4j
+@Tag("benchmark")
+@JdbcTest
+@ActiveProfiles("test")
+class UuidInsertBenchmarkTest {
+
+    private static final int SEED_ROWS = Integer.getInteger("benchmark.seed-rows", 500_000);
+    private static final int INSERT_ROWS = Integer.getInteger("benchmark.insert-rows", 100_000);
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createTable() {
+        jdbcTemplate.execute("CREATE TABLE uuid_benchmark (id BINARY(16) PRIMARY KEY, payload VARCHAR(64) NOT NULL)");
+    }
+
+    @AfterEach
+    void dropTable() {
+        jdbcTemplate.execute("DROP TABLE uuid_benchmark");
+    }
+
+    @Test
+    @DisplayName("Random UUIDv4 keys")
+    void randomUuids() {
+        run("v4", UUID::randomUUID);
+    }
+
+    @Test
+    @DisplayName("Time-ordered UUIDv7 keys")
+    void timeOrderedUuids() {
+        run("v7", UuidV7Generator::nextUuid);
+    }
+
+    private void run(String label, Supplier<UUID> ids) {
+        insert(SEED_ROWS, ids);
+
+        long start = System.nanoTime();
+        insert(INSERT_ROWS, ids);
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(SEED_ROWS + INSERT_ROWS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM uuid_benchmark", Integer.class));
+        log.info("[benchmark] {}: {} inserts over {} seeded rows in {} ms ({} rows/s)",
+                label, INSERT_ROWS, SEED_ROWS, elapsed / 1_000_000, Math.round(INSERT_ROWS / (elapsed / 1e9)));
+    }
+
+    private void insert(int rows, Supplier<UUID> ids) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{toBytes(ids.get()), "row-" + i});
+            if (batch.size() == BATCH_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO uuid_benchmark (id, payload) VALUES (?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,80 @@
+package com.foursales.ecommerce.entity.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    @DisplayName("Should generate version 7 UUIDs with the RFC 9562 variant")
+    void shouldGenerateVersion7Uuids() {
+        UUID uuid = UuidV7Generator.nextUuid();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    @DisplayName("Should embed the current unix timestamp in the first 48 bits")
+    void shouldEmbedCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.nextUuid();
+        long after = System.currentTimeMillis();
+
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+
+        assertTrue(timestamp >= before, "timestamp should not be earlier than generation time");
+        assertTrue(timestamp <= after + 1, "timestamp should not run ahead of the clock");
+    }
+
+    @Test
+    @DisplayName("Should generate strictly increasing values within the same millisecond")
+    void shouldBeMonotonic() {
+        UUID previous = UuidV7Generator.nextUuid();
+
+        for (int i = 0; i < 100_000; i++) {
+            UUID current = UuidV7Generator.nextUuid();
+            assertTrue(Long.compareUnsigned(current.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                    "expected " + current + " to sort after " + previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    @DisplayName("Should generate unique values across concurrent threads")
+    void shouldBeUniqueAcrossThreads() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(UuidV7Generator.nextUuid());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, ids.size());
+    }
+}
@@ -0,0 +1,125 @@
+package com.foursales.ecommerce.repository;
+
+import com.foursales.ecommerce.entity.Order;
+import com.foursales.ecommerce.entity.OrderHistoryView;
+import com.foursales.ecommerce.entity.User;
+import com.foursales.ecommerce.enums.OrderStatus;
+import com.foursales.ecommerce.enums.Role;
+import com.foursales.ecommerce.mapper.OrderHistoryMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class OrderHistoryViewRepositoryJpaTest {
+
+    @Autowired
+    private OrderHistoryViewRepository orderHistoryViewRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        user = createUser("user@example.com");
+    }
+
+    @Nested
+    class FindByUserIdTests {
+
+        @Test
+        @DisplayName("Should page the history of a user newest first without gaps or duplicates")
+        void shouldPageHistoryByKeyset() {
+            for (int i = 0; i < 5; i++) {
+                createView(user);
+            }
+            createView(createUser("other@example.com"));
+            em.flush();
+            em.clear();
+
+            List<OrderHistoryView> firstPage = orderHistoryViewRepository.findByUserId(user.getId(), Limit.of(3));
+            OrderHistoryView last = firstPage.get(firstPage.size() - 1);
+            List<OrderHistoryView> secondPage = orderHistoryViewRepository.findByUserIdBefore(
+                    user.getId(), last.getCreatedAt(), last.getOrderId(), Limit.of(3));
+
+            assertEquals(3, firstPage.size());
+            assertEquals(2, secondPage.size());
+
+            Set<UUID> ids = new HashSet<>();
+            firstPage.forEach(view -> ids.add(view.getOrderId()));
+            secondPage.forEach(view -> ids.add(view.getOrderId()));
+            assertEquals(5, ids.size());
+            assertFalse(secondPage.get(0).getCreatedAt().isAfter(last.getCreatedAt()));
+        }
+    }
+
+    @Nested
+    class UpdateStatusTests {
+
+        @Test
+        @DisplayName("Should update the status of the given orders only")
+        void shouldUpdateStatusOfGivenOrders() {
+            OrderHistoryView view = createView(user);
+            OrderHistoryView other = createView(user);
+            em.flush();
+            em.clear();
+
+            int updated = orderHistoryViewRepository.updateStatusByOrderIdIn(List.of(view.getOrderId()), OrderStatus.PAID);
+
+            assertEquals(1, updated);
+            assertEquals(OrderStatus.PAID, orderHistoryViewRepository.findById(view.getOrderId()).orElseThrow().getStatus());
+            assertEquals(OrderStatus.PENDING, orderHistoryViewRepository.findById(other.getOrderId()).orElseThrow().getStatus());
+        }
+
+        @Test
+        @DisplayName("Should only move orders that are still in the expected status")
+        void shouldGuardOnCurrentStatus() {
+            OrderHistoryView view = createView(user);
+            em.flush();
+            em.clear();
+
+            int updated = orderHistoryViewRepository.updateStatusByOrderIdIn(
+                    List.of(view.getOrderId()), OrderStatus.PAID, OrderStatus.CANCELED);
+
+            assertEquals(0, updated);
+            assertEquals(OrderStatus.PENDING, orderHistoryViewRepository.findById(view.getOrderId()).orElseThrow().getStatus());
+        }
+    }
+
+    private User createUser(String email) {
+        User userEntity = User.builder()
+                .email(email)
+                .password("secret")
+                .role(Role.USER)
+                .build();
+        em.persist(userEntity);
+        return userEntity;
+    }
+
+    private OrderHistoryView createView(User user) {
+        Order order = Order.builder()
+                .user(user)
+                .totalPrice(new BigDecimal("100.00"))
+                .build();
+        em.persist(order);
+        em.flush();
+        return orderHistoryViewRepository.save(OrderHistoryMapper.toEntity(order, "{}"));
+    }
+}
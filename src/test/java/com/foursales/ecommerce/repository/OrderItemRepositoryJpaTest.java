@@ -0,0 +1,110 @@
+package com.foursales.ecommerce.repository;
+
+import com.foursales.ecommerce.entity.Order;
+import com.foursales.ecommerce.entity.OrderItem;
+import com.foursales.ecommerce.entity.Product;
+import com.foursales.ecommerce.entity.User;
+import com.foursales.ecommerce.enums.ProductStatus;
+import com.foursales.ecommerce.enums.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class OrderItemRepositoryJpaTest {
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Order order;
+
+    @BeforeEach
+    void setup() {
+        User user = User.builder()
+                .email("user@example.com")
+                .password("secret")
+                .role(Role.USER)
+                .build();
+        em.persist(user);
+
+        order = Order.builder()
+                .user(user)
+                .totalPrice(new BigDecimal("100.00"))
+                .build();
+        em.persist(order);
+    }
+
+    @Nested
+    class BackfillProductNameTests {
+
+        @Test
+        @DisplayName("Should find only items without a product name, up to the limit")
+        void shouldFindUnnamedItems() {
+            Product product = createProduct("product", ProductStatus.ACTIVE);
+            OrderItem unnamed = createOrderItem(product, null);
+            createOrderItem(product, "product");
+            em.flush();
+
+            List<UUID> ids = orderItemRepository.findIdsByProductNameIsNull(Limit.of(10));
+
+            assertEquals(List.of(unnamed.getId()), ids);
+        }
+
+        @Test
+        @DisplayName("Should copy the product name, including for inactive products")
+        void shouldCopyProductNames() {
+            OrderItem active = createOrderItem(createProduct("active", ProductStatus.ACTIVE), null);
+            OrderItem inactive = createOrderItem(createProduct("inactive", ProductStatus.INACTIVE), null);
+            em.flush();
+
+            int updated = orderItemRepository.copyProductNames(List.of(active.getId(), inactive.getId()));
+            em.clear();
+
+            assertEquals(2, updated);
+            assertEquals("active", em.find(OrderItem.class, active.getId()).getProductName());
+            assertEquals("inactive", em.find(OrderItem.class, inactive.getId()).getProductName());
+            assertTrue(orderItemRepository.findIdsByProductNameIsNull(Limit.of(10)).isEmpty());
+        }
+    }
+
+    private Product createProduct(String name, ProductStatus status) {
+        Product product = Product.builder()
+                .name(name)
+                .description("description")
+                .price(new BigDecimal("100.00"))
+                .category("category")
+                .stockQuantity(10)
+                .status(status)
+                .build();
+        em.persist(product);
+        return product;
+    }
+
+    private OrderItem createOrderItem(Product product, String productName) {
+        OrderItem item = OrderItem.builder()
+                .order(order)
+                .product(product)
+                .productName(productName)
+                .quantity(1)
+                .price(product.getPrice())
+                .build();
+        em.persist(item);
+        return item;
+    }
+}
@@ -1,6 +1,10 @@
 package com.foursales.ecommerce.repository;
 
 import com.foursales.ecommerce.dto.MonthlyRevenueDTO;
+import com.foursales.ecommerce.dto.OrderCursor;
+import com.foursales.ecommerce.dto.OrderExportRowDTO;
+import com.foursales.ecommerce.dto.OrderSearchFilter;
+import com.foursales.ecommerce.dto.OrderSearchResultDTO;
 import com.foursales.ecommerce.dto.TopBuyerDTO;
 import com.foursales.ecommerce.dto.UserAverageTicketDTO;
 import com.foursales.ecommerce.entity.Order;
@@ -13,6 +17,7 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
@@ -24,7 +29,9 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -63,22 +70,127 @@ class OrderRepositoryJpaTest {
     }
 
     @Nested
-    class FindOrdersTests {
+    class StreamExportRowsTests {
 
         @Test
-        @DisplayName("Should find all orders by user ID with items")
-        void shouldFindAllOrdersByUserIdWithItems() {
-            Order order = createOrder(user, new BigDecimal("200"), null);
-            createOrderItem(order, product);
+        @DisplayName("Should stream one row per item of the user's orders, grouped by order")
+        void shouldStreamRowsGroupedByOrder() {
+            Order first = createOrder(user, new BigDecimal("400"), null);
+            createOrderItem(first, product);
+            createOrderItem(first, createProduct(new BigDecimal("100")));
+            Order second = createOrder(user, new BigDecimal("0"), null);
+            createOrder(createUser("other@example.com", "secret"), new BigDecimal("100"), null);
+            em.flush();
+            em.clear();
+
+            List<OrderExportRowDTO> rows;
+            try (Stream<OrderExportRowDTO> stream = orderRepository.streamExportRowsByUserId(user.getId())) {
+                rows = stream.toList();
+            }
+
+            assertEquals(3, rows.size());
+            assertEquals(second.getId(), rows.get(0).orderId());
+            assertNull(rows.get(0).quantity());
+            assertEquals(first.getId(), rows.get(1).orderId());
+            assertEquals(first.getId(), rows.get(2).orderId());
+            assertEquals(2, rows.get(1).quantity());
+        }
+    }
+
+    @Nested
+    class SearchOrdersTests {
 
+        @Test
+        @DisplayName("Should project only the orders matching every supplied filter")
+        void shouldApplyFilters() {
+            User other = createUser("other@example.com", "secret");
+            Order match = createOrderWithStatus(user, new BigDecimal("150"), OrderStatus.PENDING);
+            createOrderWithStatus(user, new BigDecimal("500"), OrderStatus.PENDING);
+            createOrderWithStatus(user, new BigDecimal("150"), OrderStatus.PAID);
+            createOrderWithStatus(other, new BigDecimal("150"), OrderStatus.PENDING);
             em.flush();
+            em.clear();
+
+            OrderSearchFilter filter = new OrderSearchFilter(OrderStatus.PENDING, user.getId(),
+                    LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1),
+                    new BigDecimal("100"), new BigDecimal("200"));
 
-            List<Order> orders = orderRepository.findAllByUserId(user.getId());
+            List<OrderSearchResultDTO> rows = orderRepository.searchOrders(filter, null, 10);
+
+            assertEquals(1, rows.size());
+            OrderSearchResultDTO row = rows.get(0);
+            assertEquals(match.getId(), row.id());
+            assertEquals(user.getId(), row.userId());
+            assertEquals(OrderStatus.PENDING, row.status());
+            assertEquals(0, row.totalPrice().compareTo(new BigDecimal("150")));
+            assertNotNull(row.createdAt());
+        }
 
-            assertFalse(orders.isEmpty());
-            assertEquals(1, orders.size());
-            assertEquals(1, orders.get(0).getItems().size());
-            assertNotNull(orders.get(0).getItems().get(0).getProduct());
+        @Test
+        @DisplayName("Should walk every order exactly once, newest first, following the keyset cursor")
+        void shouldPageWithKeysetCursor() {
+            for (int i = 0; i < 5; i++) {
+                createOrderWithStatus(user, new BigDecimal("100"), OrderStatus.PAID);
+            }
+            em.flush();
+            em.clear();
+
+            OrderSearchFilter filter = new OrderSearchFilter(null, null, null, null, null, null);
+            List<OrderSearchResultDTO> all = orderRepository.searchOrders(filter, null, 10);
+
+            List<OrderSearchResultDTO> walked = new ArrayList<>();
+            OrderCursor cursor = null;
+            List<OrderSearchResultDTO> page;
+            do {
+                page = orderRepository.searchOrders(filter, cursor, 2);
+                walked.addAll(page);
+                if (!page.isEmpty()) {
+                    OrderSearchResultDTO last = page.get(page.size() - 1);
+                    cursor = new OrderCursor(last.createdAt(), last.id());
+                }
+            } while (page.size() == 2);
+
+            assertEquals(5, all.size());
+            assertEquals(all, walked);
+            for (int i = 1; i < all.size(); i++) {
+                assertFalse(all.get(i).createdAt().isAfter(all.get(i - 1).createdAt()));
+            }
+        }
+    }
+
+    @Nested
+    class ExpirePendingOrdersTests {
+
+        @Test
+        @DisplayName("Should select only PENDING orders created before the cutoff, up to the limit")
+        void shouldFindPendingOrderIdsBeforeCutoff() {
+            createOrderWithStatus(user, new BigDecimal("100"), OrderStatus.PENDING);
+            createOrderWithStatus(user, new BigDecimal("100"), OrderStatus.PENDING);
+            createOrder(user, new BigDecimal("100"), null);
+            em.flush();
+
+            LocalDateTime cutoff = LocalDateTime.now().plusMinutes(1);
+
+            assertEquals(2, orderRepository.findIdsByStatusAndCreatedAtBefore(OrderStatus.PENDING, cutoff, Limit.of(10)).size());
+            assertEquals(1, orderRepository.findIdsByStatusAndCreatedAtBefore(OrderStatus.PENDING, cutoff, Limit.of(1)).size());
+            assertTrue(orderRepository.findIdsByStatusAndCreatedAtBefore(
+                    OrderStatus.PENDING, LocalDateTime.now().minusDays(1), Limit.of(10)).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should cancel only orders that are still PENDING")
+        void shouldUpdateOnlyPendingOrders() {
+            Order pending = createOrderWithStatus(user, new BigDecimal("100"), OrderStatus.PENDING);
+            Order paid = createOrder(user, new BigDecimal("100"), null);
+            em.flush();
+
+            int updated = orderRepository.updateStatusByIdIn(
+                    List.of(pending.getId(), paid.getId()), OrderStatus.PENDING, OrderStatus.CANCELED);
+            em.clear();
+
+            assertEquals(1, updated);
+            assertEquals(OrderStatus.CANCELED, orderRepository.findById(pending.getId()).orElseThrow().getStatus());
+            assertEquals(OrderStatus.PAID, orderRepository.findById(paid.getId()).orElseThrow().getStatus());
         }
     }
 
@@ -167,6 +279,16 @@ class OrderRepositoryJpaTest {
         return productEntity;
     }
 
+    private Order createOrderWithStatus(User user, BigDecimal totalPrice, OrderStatus status) {
+        Order order = Order.builder()
+                .user(user)
+                .totalPrice(totalPrice)
+                .status(status)
+                .build();
+        em.persist(order);
+        return order;
+    }
+
     private Order createOrder(User user, BigDecimal totalPrice, LocalDateTime createdAt) {
         Order order = Order.builder()
                 .user(user)
@@ -0,0 +1,257 @@
+package com.foursales.ecommerce.repository;
+
+import com.foursales.ecommerce.dto.ProductCursor;
+import com.foursales.ecommerce.dto.ProductFilter;
+import com.foursales.ecommerce.dto.ProductStockVersionDTO;
+import com.foursales.ecommerce.entity.Product;
+import com.foursales.ecommerce.enums.ProductStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ProductRepositoryJpaTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Nested
+    class DecrementStockTests {
+
+        @Test
+        @DisplayName("Should decrement stock when enough quantity is available")
+        void shouldDecrementStockWhenAvailable() {
+            Product product = createProduct(5);
+
+            int updated = productRepository.decrementStock(product.getId(), 3);
+            em.clear();
+
+            assertEquals(1, updated);
+            assertEquals(2, productRepository.findStockQuantityById(product.getId()).orElseThrow());
+        }
+
+        @Test
+        @DisplayName("Should not decrement stock below zero")
+        void shouldNotDecrementStockBelowZero() {
+            Product product = createProduct(2);
+
+            int updated = productRepository.decrementStock(product.getId(), 3);
+            em.clear();
+
+            assertEquals(0, updated);
+            assertEquals(2, productRepository.findStockQuantityById(product.getId()).orElseThrow());
+        }
+
+        @Test
+        @DisplayName("Should restore stock on increment")
+        void shouldIncrementStock() {
+            Product product = createProduct(2);
+
+            productRepository.incrementStock(product.getId(), 3);
+            em.clear();
+
+            assertEquals(5, productRepository.findStockQuantityById(product.getId()).orElseThrow());
+        }
+    }
+
+    @Nested
+    class ApplyStockDeltasTests {
+
+        @Test
+        @DisplayName("Should subtract the net delta of every product in one batch")
+        void shouldApplyStockDeltas() {
+            Product product = createProduct(10);
+            Product otherProduct = createProduct(4);
+
+            productRepository.applyStockDeltas(Map.of(product.getId(), 3, otherProduct.getId(), 4), 50);
+            em.clear();
+
+            assertEquals(7, productRepository.findStockQuantityById(product.getId()).orElseThrow());
+            assertEquals(0, productRepository.findStockQuantityById(otherProduct.getId()).orElseThrow());
+        }
+    }
+
+    @Nested
+    class VersionTests {
+
+        @Test
+        @DisplayName("Should bump the version on guarded stock updates")
+        void shouldBumpVersionOnStockUpdates() {
+            Product product = createProduct(5);
+            long version = product.getVersion();
+
+            productRepository.decrementStock(product.getId(), 1);
+            productRepository.incrementStock(product.getId(), 1);
+            em.clear();
+
+            assertEquals(version + 2, productRepository.findById(product.getId()).orElseThrow().getVersion());
+        }
+
+        @Test
+        @DisplayName("Should write stock only when the version still matches")
+        void shouldUpdateStockOnlyWhenVersionMatches() {
+            Product product = createProduct(5);
+            long version = product.getVersion();
+
+            int updated = productRepository.updateStockIfVersionMatches(product.getId(), version, 3);
+            int stale = productRepository.updateStockIfVersionMatches(product.getId(), version, 1);
+            em.clear();
+
+            assertEquals(1, updated);
+            assertEquals(0, stale);
+            ProductStockVersionDTO stock = productRepository.findStockVersionsByIdIn(List.of(product.getId())).get(0);
+            assertEquals(3, stock.getStockQuantity());
+            assertEquals(version + 1, stock.getVersion());
+        }
+    }
+
+    @Nested
+    class FindAllMatchingTests {
+
+        @Test
+        @DisplayName("Should filter active products by category and price range")
+        void shouldFilterByCategoryAndPriceRange() {
+            createProduct("Fone", "Eletrônicos", "50.00");
+            createProduct("Teclado", "Eletrônicos", "150.00");
+            createProduct("Cabo", "Eletrônicos", "9.99");
+            createProduct("Panela", "Cozinha", "80.00");
+            Product inactive = createProduct("Mouse", "Eletrônicos", "60.00");
+            inactive.setStatus(ProductStatus.INACTIVE);
+            em.persistAndFlush(inactive);
+            em.clear();
+
+            Page<Product> page = productRepository.findAll(
+                    ProductSpecifications.matching(new ProductFilter("Eletrônicos", new BigDecimal("10.00"),
+                            new BigDecimal("100.00"))),
+                    PageRequest.of(0, 10, Sort.by("name")));
+
+            assertEquals(List.of("Fone"), page.map(Product::getName).getContent());
+            assertEquals(1, page.getTotalElements());
+        }
+
+        @Test
+        @DisplayName("Should return every active product when no filter is given")
+        void shouldIgnoreMissingFilters() {
+            createProduct("Fone", "Eletrônicos", "50.00");
+            createProduct("Panela", "Cozinha", "80.00");
+
+            Page<Product> page = productRepository.findAll(
+                    ProductSpecifications.matching(new ProductFilter(" ", null, null)),
+                    PageRequest.of(0, 10, Sort.by("name")));
+
+            assertEquals(List.of("Fone", "Panela"), page.map(Product::getName).getContent());
+        }
+    }
+
+    @Nested
+    class UpdatedAtTests {
+
+        @Test
+        @DisplayName("Should move updated_at on stock updates from every write path")
+        void shouldMoveOnStockUpdates() throws InterruptedException {
+            // H2 freezes the database clock for the length of a transaction, so each write commits.
+            try {
+                Product product = createProduct(5);
+                LocalDateTime created = commitAndFindUpdatedAt(product.getId());
+
+                productRepository.decrementStock(product.getId(), 1);
+                LocalDateTime decremented = commitAndFindUpdatedAt(product.getId());
+
+                productRepository.applyStockDeltas(Map.of(product.getId(), 1), 50);
+                LocalDateTime flushed = commitAndFindUpdatedAt(product.getId());
+
+                assertTrue(decremented.isAfter(created));
+                assertTrue(flushed.isAfter(decremented));
+            } finally {
+                productRepository.deleteAllInBatch();
+                TestTransaction.flagForCommit();
+            }
+        }
+    }
+
+    @Nested
+    class KeysetTests {
+
+        @Test
+        @DisplayName("Should walk every product exactly once in name and id order, including name ties")
+        void shouldWalkAllProductsAfterCursor() {
+            for (String name : List.of("Caneca", "Abajur", "Caneca", "Bule", "Caneca", "Dado")) {
+                createProduct(name, "Casa", "10.00");
+            }
+            em.clear();
+            List<Product> expected = productRepository.findAll(ProductSpecifications.KEYSET_ORDER);
+
+            List<Product> walked = new ArrayList<>();
+            ProductCursor cursor = null;
+            while (true) {
+                List<Product> page = productRepository.findBy(Specification.where(ProductSpecifications.after(cursor)),
+                        query -> query.sortBy(ProductSpecifications.KEYSET_ORDER).limit(2).all());
+                if (page.isEmpty()) {
+                    break;
+                }
+                walked.addAll(page);
+                Product last = page.get(page.size() - 1);
+                cursor = new ProductCursor(last.getName(), last.getId());
+            }
+
+            assertEquals(expected.stream().map(Product::getId).toList(), walked.stream().map(Product::getId).toList());
+            assertEquals(List.of("Abajur", "Bule", "Caneca", "Caneca", "Caneca", "Dado"),
+                    walked.stream().map(Product::getName).toList());
+        }
+    }
+
+    private Product createProduct(String name, String category, String price) {
+        Product product = Product.builder()
+                .name(name)
+                .description("description")
+                .price(new BigDecimal(price))
+                .category(category)
+                .stockQuantity(1)
+                .build();
+        em.persistAndFlush(product);
+        return product;
+    }
+
+    private LocalDateTime commitAndFindUpdatedAt(UUID productId) throws InterruptedException {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        Thread.sleep(5);
+        TestTransaction.start();
+        em.clear();
+        return productRepository.findById(productId).orElseThrow().getUpdatedAt();
+    }
+
+    private Product createProduct(int stockQuantity) {
+        Product product = Product.builder()
+                .name("name")
+                .description("description")
+                .price(new BigDecimal("10.00"))
+                .category("category")
+                .stockQuantity(stockQuantity)
+                .build();
+        em.persistAndFlush(product);
+        return product;
+    }
+}
@@ -20,9 +20,15 @@ public abstract class AbstractResourceMvcTest {
     @MockitoBean
     protected AuthService authService;
 
+    @MockitoBean
+    protected IdempotencyService idempotencyService;
+
     @MockitoBean
     protected OrderService orderService;
 
+    @MockitoBean
+    protected PaymentQueue paymentQueue;
+
     @MockitoBean
     protected ProductService productService;
 
@@ -1,21 +1,38 @@
 package com.foursales.ecommerce.resource;
 
+import com.foursales.ecommerce.dto.OrderSearchFilter;
+import com.foursales.ecommerce.dto.OrderSearchResultDTO;
 import com.foursales.ecommerce.enums.OrderStatus;
+import com.foursales.ecommerce.enums.PaymentStatus;
+import com.foursales.ecommerce.exceptions.PaymentQueueFullException;
+import com.foursales.ecommerce.resource.request.CreateOrderBatchRequest;
 import com.foursales.ecommerce.resource.request.CreateOrderRequest;
 import com.foursales.ecommerce.resource.request.OrderItemRequest;
+import com.foursales.ecommerce.resource.request.PayOrdersRequest;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
+import com.foursales.ecommerce.resource.response.OrderBatchResultResponse;
 import com.foursales.ecommerce.resource.response.OrderItemResponse;
 import com.foursales.ecommerce.resource.response.OrderResponse;
+import com.foursales.ecommerce.resource.response.PaymentStatusResponse;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -56,6 +73,29 @@ class OrderResourceMvcTest extends AbstractResourceMvcTest {
             verify(orderService).createOrder(any());
         }
 
+        @Test
+        @DisplayName("Should route the request through the idempotency store when a key is sent")
+        void shouldUseIdempotencyStoreWhenKeyIsSent() throws Exception {
+
+            CreateOrderRequest request = new CreateOrderRequest(List.of(
+                    new OrderItemRequest(orderItemId, quantity)
+            ));
+
+            OrderItemResponse orderItemResponse = new OrderItemResponse(productId, productName, quantity, price);
+            OrderResponse response = new OrderResponse(orderId, OrderStatus.PENDING, totalPrice, List.of(orderItemResponse));
+            when(idempotencyService.execute(eq("create-order"), eq("key-1"), eq(request), eq(OrderResponse.class), any()))
+                    .thenReturn(response);
+
+            mockMvc.perform(post("/v1/orders")
+                            .header("Idempotency-Key", "key-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(content().json(objectMapper.writeValueAsString(response)));
+
+            verify(orderService, never()).createOrder(any());
+        }
+
         @Test
         @DisplayName("Should return BadRequest when required fields are null")
         void shouldReturnBadRequest_whenRequiredFieldsAreNull() throws Exception {
@@ -93,6 +133,51 @@ class OrderResourceMvcTest extends AbstractResourceMvcTest {
         }
     }
 
+    @Nested
+    class CreateOrders {
+
+        @Test
+        @DisplayName("Should return 200 with one result per submitted order")
+        void shouldReturnResultPerOrder() throws Exception {
+
+            CreateOrderBatchRequest request = new CreateOrderBatchRequest(List.of(
+                    new CreateOrderRequest(List.of(new OrderItemRequest(productId, quantity))),
+                    new CreateOrderRequest(List.of(new OrderItemRequest(UUID.randomUUID(), quantity)))
+            ));
+
+            OrderItemResponse orderItemResponse = new OrderItemResponse(productId, productName, quantity, price);
+            OrderResponse orderResponse = new OrderResponse(orderId, OrderStatus.PENDING, totalPrice, List.of(orderItemResponse));
+            List<OrderBatchResultResponse> response = List.of(
+                    new OrderBatchResultResponse(0, orderResponse, null),
+                    new OrderBatchResultResponse(1, null, "Product not found"));
+            when(orderService.createOrders(any(CreateOrderBatchRequest.class))).thenReturn(response);
+
+            mockMvc.perform(post("/v1/orders/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(objectMapper.writeValueAsString(response)));
+
+            verify(orderService).createOrders(any());
+        }
+
+        @Test
+        @DisplayName("Should return BadRequest when orders is empty")
+        void shouldReturnBadRequest_whenOrdersIsEmpty() throws Exception {
+
+            CreateOrderBatchRequest request = new CreateOrderBatchRequest(List.of());
+
+            mockMvc.perform(post("/v1/orders/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message[0].error")
+                            .value("must not be empty"));
+
+            verify(orderService, never()).createOrders(any());
+        }
+    }
+
     @Nested
     class PayOrder {
 
@@ -111,15 +196,160 @@ class OrderResourceMvcTest extends AbstractResourceMvcTest {
 
             verify(orderService).payOrder(orderId);
         }
+
+        @Test
+        @DisplayName("Should route the payment through the idempotency store when a key is sent")
+        void shouldUseIdempotencyStoreWhenKeyIsSent() throws Exception {
+
+            OrderItemResponse orderItemResponse = new OrderItemResponse(productId, productName, quantity, price);
+            OrderResponse response = new OrderResponse(orderId, OrderStatus.PAID, totalPrice, List.of(orderItemResponse));
+            when(idempotencyService.execute(eq("pay-order"), eq("key-1"), eq(orderId), eq(OrderResponse.class), any()))
+                    .thenReturn(response);
+
+            mockMvc.perform(post("/v1/orders/{id}/pay", orderId)
+                            .header("Idempotency-Key", "key-1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(objectMapper.writeValueAsString(response)));
+
+            verify(orderService, never()).payOrder(any());
+        }
     }
 
     @Nested
-    class GetMyOrders {
+    class PayOrders {
 
         @Test
-        @DisplayName("Should return 200 with list of orders")
-        void shouldReturnListOfOrders() throws Exception {
+        @DisplayName("Should return 200 with one result per requested order")
+        void shouldReturnResultPerOrder() throws Exception {
+            UUID missingOrderId = UUID.randomUUID();
+            PayOrdersRequest request = new PayOrdersRequest(List.of(orderId, missingOrderId));
 
+            OrderItemResponse orderItemResponse = new OrderItemResponse(productId, productName, quantity, price);
+            OrderResponse orderResponse = new OrderResponse(orderId, OrderStatus.PAID, totalPrice, List.of(orderItemResponse));
+            List<OrderBatchResultResponse> response = List.of(
+                    new OrderBatchResultResponse(0, orderResponse, null),
+                    new OrderBatchResultResponse(1, null, "Order not found: " + missingOrderId));
+            when(orderService.payOrders(any(PayOrdersRequest.class))).thenReturn(response);
+
+            mockMvc.perform(post("/v1/orders/pay")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(objectMapper.writeValueAsString(response)));
+
+            verify(orderService).payOrders(request);
+        }
+
+        @Test
+        @DisplayName("Should return BadRequest when orderIds is empty")
+        void shouldReturnBadRequest_whenOrderIdsIsEmpty() throws Exception {
+            PayOrdersRequest request = new PayOrdersRequest(List.of());
+
+            mockMvc.perform(post("/v1/orders/pay")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message[0].error")
+                            .value("must not be empty"));
+
+            verify(orderService, never()).payOrders(any(PayOrdersRequest.class));
+        }
+    }
+
+    @Nested
+    class PayOrderAsync {
+
+        @Test
+        @DisplayName("Should return 202 with status location when async payments are enabled")
+        void shouldReturnAcceptedWhenAsync() throws Exception {
+            PaymentStatusResponse response = new PaymentStatusResponse(orderId, PaymentStatus.QUEUED, null);
+            when(paymentQueue.isEnabled()).thenReturn(true);
+            when(paymentQueue.submit(orderId)).thenReturn(response);
+
+            mockMvc.perform(post("/v1/orders/{id}/pay", orderId))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "http://localhost/v1/orders/" + orderId + "/payment"))
+                    .andExpect(content().json(objectMapper.writeValueAsString(response)));
+
+            verify(paymentQueue).submit(orderId);
+            verify(orderService, never()).payOrder(any());
+        }
+
+        @Test
+        @DisplayName("Should return 429 when the payment queue is full")
+        void shouldReturnTooManyRequestsWhenQueueIsFull() throws Exception {
+            when(paymentQueue.isEnabled()).thenReturn(true);
+            when(paymentQueue.submit(orderId)).thenThrow(new PaymentQueueFullException("Payment queue is full, try again later"));
+
+            mockMvc.perform(post("/v1/orders/{id}/pay", orderId))
+                    .andExpect(status().isTooManyRequests());
+        }
+
+        @Test
+        @DisplayName("Should return 200 with the payment status")
+        void shouldReturnPaymentStatus() throws Exception {
+            PaymentStatusResponse response = new PaymentStatusResponse(orderId, PaymentStatus.PAID, null);
+            when(paymentQueue.getStatus(orderId)).thenReturn(response);
+
+            mockMvc.perform(get("/v1/orders/{id}/payment", orderId))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(objectMapper.writeValueAsString(response)));
+        }
+    }
+
+    @Nested
+    class SearchOrders {
+
+        @Test
+        @DisplayName("Should return 200 with a page of orders matching the filters")
+        void shouldReturnFilteredPage() throws Exception {
+            UUID userId = UUID.randomUUID();
+            LocalDateTime createdFrom = LocalDateTime.of(2025, 1, 1, 0, 0);
+            LocalDateTime createdTo = LocalDateTime.of(2025, 2, 1, 0, 0);
+            OrderSearchFilter filter = new OrderSearchFilter(OrderStatus.PAID, userId, createdFrom, createdTo,
+                    new BigDecimal("10"), new BigDecimal("2000"));
+            OrderSearchResultDTO order = new OrderSearchResultDTO(orderId, userId, OrderStatus.PAID, totalPrice,
+                    createdFrom.plusDays(1));
+            CursorPageResponse<OrderSearchResultDTO> page = new CursorPageResponse<>(List.of(order), 1, true, "next");
+            String expectedJson = objectMapper.writeValueAsString(page);
+            when(orderService.searchOrders(filter, "cursor", 50)).thenReturn(page);
+
+            mockMvc.perform(get("/v1/orders")
+                            .param("status", "PAID")
+                            .param("userId", userId.toString())
+                            .param("createdFrom", "2025-01-01T00:00:00")
+                            .param("createdTo", "2025-02-01T00:00:00")
+                            .param("minTotal", "10")
+                            .param("maxTotal", "2000")
+                            .param("cursor", "cursor")
+                            .param("size", "50"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(expectedJson));
+
+            verify(orderService).searchOrders(filter, "cursor", 50);
+        }
+
+        @Test
+        @DisplayName("Should search without filters using the default page size")
+        void shouldSearchWithoutFilters() throws Exception {
+            OrderSearchFilter filter = new OrderSearchFilter(null, null, null, null, null, null);
+            CursorPageResponse<OrderSearchResultDTO> page = new CursorPageResponse<>(List.of(), 0, false, null);
+            when(orderService.searchOrders(filter, null, 20)).thenReturn(page);
+
+            mockMvc.perform(get("/v1/orders"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(objectMapper.writeValueAsString(page)));
+
+            verify(orderService).searchOrders(filter, null, 20);
+        }
+    }
+
+    @Nested
+    class GetMyOrders {
+
+        @Test
+        @DisplayName("Should return 200 with every order as an array when no page is requested")
+        void shouldReturnAllOrders() throws Exception {
             OrderItemResponse orderItemResponse = new OrderItemResponse(productId, productName, quantity, price);
             OrderResponse response = new OrderResponse(orderId, OrderStatus.PAID, totalPrice, List.of(orderItemResponse));
             String expectedJson = objectMapper.writeValueAsString(List.of(response));
@@ -130,19 +360,84 @@ class OrderResourceMvcTest extends AbstractResourceMvcTest {
                     .andExpect(content().json(expectedJson));
 
             verify(orderService).getUserOrders();
+            verify(orderService, never()).getUserOrders(any(), anyInt());
         }
 
         @Test
-        @DisplayName("Should return empty list when no orders found")
-        void shouldReturnEmptyList() throws Exception {
-            String expectedJson = objectMapper.writeValueAsString(List.of());
-            when(orderService.getUserOrders()).thenReturn(List.of());
+        @DisplayName("Should return 200 with the first page of orders when only a size is given")
+        void shouldReturnPageOfOrders() throws Exception {
+            OrderItemResponse orderItemResponse = new OrderItemResponse(productId, productName, quantity, price);
+            OrderResponse response = new OrderResponse(orderId, OrderStatus.PAID, totalPrice, List.of(orderItemResponse));
+            CursorPageResponse<OrderResponse> page = new CursorPageResponse<>(List.of(response), 1, true, "next");
+            String expectedJson = objectMapper.writeValueAsString(page);
+            when(orderService.getUserOrders(null, 20)).thenReturn(page);
 
-            mockMvc.perform(get("/v1/orders/my"))
+            mockMvc.perform(get("/v1/orders/my")
+                            .param("size", "20"))
                     .andExpect(status().isOk())
                     .andExpect(content().json(expectedJson));
 
-            verify(orderService).getUserOrders();
+            verify(orderService).getUserOrders(null, 20);
+        }
+
+        @Test
+        @DisplayName("Should forward cursor and size to the service")
+        void shouldForwardCursorAndSize() throws Exception {
+            CursorPageResponse<OrderResponse> page = new CursorPageResponse<>(List.of(), 0, false, null);
+            String expectedJson = objectMapper.writeValueAsString(page);
+            when(orderService.getUserOrders("cursor", 5)).thenReturn(page);
+
+            mockMvc.perform(get("/v1/orders/my")
+                            .param("cursor", "cursor")
+                            .param("size", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(expectedJson));
+
+            verify(orderService).getUserOrders("cursor", 5);
+        }
+    }
+
+    @Nested
+    class ExportMyOrders {
+
+        @Test
+        @DisplayName("Should stream orders as newline-delimited JSON")
+        void shouldStreamOrdersAsNdjson() throws Exception {
+            UUID userId = UUID.randomUUID();
+            OrderItemResponse orderItemResponse = new OrderItemResponse(productId, productName, quantity, price);
+            OrderResponse first = new OrderResponse(orderId, OrderStatus.PAID, totalPrice, List.of(orderItemResponse));
+            OrderResponse second = new OrderResponse(UUID.randomUUID(), OrderStatus.CANCELED, totalPrice, List.of());
+            when(orderService.getAuthenticatedUserId()).thenReturn(userId);
+            doAnswer(invocation -> {
+                Consumer<OrderResponse> consumer = invocation.getArgument(1);
+                consumer.accept(first);
+                consumer.accept(second);
+                return null;
+            }).when(orderService).exportUserOrders(eq(userId), any());
+
+            MvcResult result = mockMvc.perform(get("/v1/orders/my/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            assertEquals(Duration.ofMinutes(10).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=\"orders.ndjson\""))
+                    .andExpect(content().string(objectMapper.writeValueAsString(first) + "\n"
+                            + objectMapper.writeValueAsString(second) + "\n"));
+        }
+
+        @Test
+        @DisplayName("Should return 404 without streaming when the user does not exist")
+        void shouldReturnNotFoundWhenUserDoesNotExist() throws Exception {
+            when(orderService.getAuthenticatedUserId()).thenThrow(new EntityNotFoundException("User not found"));
+
+            mockMvc.perform(get("/v1/orders/my/export"))
+                    .andExpect(status().isNotFound());
+
+            verify(orderService, never()).exportUserOrders(any(), any());
         }
     }
 }
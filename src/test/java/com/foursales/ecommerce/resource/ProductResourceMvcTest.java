@@ -1,7 +1,9 @@
 package com.foursales.ecommerce.resource;
 
+import com.foursales.ecommerce.dto.ProductFilter;
 import com.foursales.ecommerce.resource.request.CreateProductRequest;
 import com.foursales.ecommerce.resource.request.UpdateProductRequest;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
 import com.foursales.ecommerce.resource.response.ProductResponse;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -10,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
 import java.math.BigDecimal;
@@ -29,6 +32,8 @@ class ProductResourceMvcTest extends AbstractResourceMvcTest {
     private final BigDecimal price = new BigDecimal("100.00");
     private final String category = "category";
     private final Integer stockQuantity = 5;
+    private final String productETag = "\"2-1700000000000000\"";
+    private final String catalogETag = "\"catalog-1700000000000000\"";
 
     @Nested
     class CreateProduct {
@@ -84,6 +89,22 @@ class ProductResourceMvcTest extends AbstractResourceMvcTest {
 
             verify(productService, never()).create(any());
         }
+
+        @Test
+        @DisplayName("Should return BadRequest when the price has more than two decimal places")
+        void shouldReturnBadRequest_whenPriceHasFractionOfCent() throws Exception {
+            CreateProductRequest request = new CreateProductRequest(name, description, new BigDecimal("10.999"),
+                    category, stockQuantity);
+
+            mockMvc.perform(post("/v1/products")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message[0].field")
+                            .value("price"));
+
+            verify(productService, never()).create(any());
+        }
     }
 
     @Nested
@@ -106,6 +127,21 @@ class ProductResourceMvcTest extends AbstractResourceMvcTest {
 
             verify(productService).update(eq(productId), any(UpdateProductRequest.class));
         }
+
+        @Test
+        @DisplayName("Should return BadRequest when the price is not positive")
+        void shouldReturnBadRequest_whenPriceIsNotPositive() throws Exception {
+            UpdateProductRequest request = new UpdateProductRequest(null, null, new BigDecimal("-1.00"), null, null);
+
+            mockMvc.perform(put("/v1/products/{id}", productId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message[0].field")
+                            .value("price"));
+
+            verify(productService, never()).update(any(), any());
+        }
     }
 
     @Nested
@@ -132,7 +168,7 @@ class ProductResourceMvcTest extends AbstractResourceMvcTest {
             ProductResponse response = new ProductResponse(productId, name, description, price, category, stockQuantity);
             Page<ProductResponse> page = new PageImpl<>(List.of(response));
             String expectedJson = objectMapper.writeValueAsString(page);
-            when(productService.findAll(any(Pageable.class))).thenReturn(page);
+            when(productService.findAll(any(ProductFilter.class), any(Pageable.class))).thenReturn(page);
 
             mockMvc.perform(get("/v1/products")
                             .param("page", "0")
@@ -141,7 +177,55 @@ class ProductResourceMvcTest extends AbstractResourceMvcTest {
                     .andExpect(status().isOk())
                     .andExpect(content().json(expectedJson));
 
-            verify(productService).findAll(any(Pageable.class));
+            verify(productService).findAll(eq(new ProductFilter(null, null, null)), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should pass category and price range filters to the service")
+        void shouldPassFilters() throws Exception {
+            Page<ProductResponse> page = new PageImpl<>(List.of());
+            when(productService.findAll(any(ProductFilter.class), any(Pageable.class))).thenReturn(page);
+
+            mockMvc.perform(get("/v1/products")
+                            .param("category", "Eletrônicos")
+                            .param("minPrice", "10.00")
+                            .param("maxPrice", "99.90"))
+                    .andExpect(status().isOk());
+
+            verify(productService).findAll(
+                    eq(new ProductFilter("Eletrônicos", new BigDecimal("10.00"), new BigDecimal("99.90"))),
+                    any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should return 304 without querying products when the catalog has not changed")
+        void shouldReturnNotModified() throws Exception {
+            when(productService.getCatalogETag()).thenReturn(catalogETag);
+
+            mockMvc.perform(get("/v1/products").header(HttpHeaders.IF_NONE_MATCH, catalogETag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().stringValues(HttpHeaders.ETAG, catalogETag));
+
+            verify(productService, never()).findAll(any(), any());
+        }
+    }
+
+    @Nested
+    class FindAllProductsAfter {
+
+        @Test
+        @DisplayName("Should return 200 and a cursor page when the after parameter is present")
+        void shouldReturnCursorPage() throws Exception {
+            ProductResponse response = new ProductResponse(productId, name, description, price, category, stockQuantity);
+            CursorPageResponse<ProductResponse> page = new CursorPageResponse<>(List.of(response), 1, true, "next");
+            when(productService.findAllAfter(any(ProductFilter.class), eq(""), eq(20))).thenReturn(page);
+
+            mockMvc.perform(get("/v1/products").param("after", ""))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(objectMapper.writeValueAsString(page)));
+
+            verify(productService).findAllAfter(new ProductFilter(null, null, null), "", 20);
+            verify(productService, never()).findAll(any(), any());
         }
     }
 
@@ -153,13 +237,61 @@ class ProductResourceMvcTest extends AbstractResourceMvcTest {
         void shouldReturnProductById() throws Exception {
             ProductResponse response = new ProductResponse(productId, name, description, price, category, stockQuantity);
             String expectedJson = objectMapper.writeValueAsString(response);
+            when(productService.getETag(productId)).thenReturn(productETag);
             when(productService.findById(productId)).thenReturn(response);
 
             mockMvc.perform(get("/v1/products/{id}", productId))
                     .andExpect(status().isOk())
+                    .andExpect(header().stringValues(HttpHeaders.ETAG, productETag))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
                     .andExpect(content().json(expectedJson));
 
             verify(productService).findById(productId);
         }
+
+        @Test
+        @DisplayName("Should return 304 without loading the product when the ETag still matches")
+        void shouldReturnNotModified() throws Exception {
+            when(productService.getETag(productId)).thenReturn(productETag);
+
+            mockMvc.perform(get("/v1/products/{id}", productId)
+                            .header(HttpHeaders.IF_NONE_MATCH, productETag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().stringValues(HttpHeaders.ETAG, productETag))
+                    .andExpect(content().string(""));
+
+            verify(productService, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Should return 200 when the client holds an outdated ETag")
+        void shouldReturnProductWhenETagChanged() throws Exception {
+            ProductResponse response = new ProductResponse(productId, name, description, price, category, stockQuantity);
+            when(productService.getETag(productId)).thenReturn(productETag);
+            when(productService.findById(productId)).thenReturn(response);
+
+            mockMvc.perform(get("/v1/products/{id}", productId)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"1-100\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().stringValues(HttpHeaders.ETAG, productETag));
+        }
+    }
+
+    @Nested
+    class SearchProducts {
+
+        @Test
+        @DisplayName("Should return 200 and ranked products for the query")
+        void shouldReturnSearchResults() throws Exception {
+            ProductResponse response = new ProductResponse(productId, name, description, price, category, stockQuantity);
+            String expectedJson = objectMapper.writeValueAsString(List.of(response));
+            when(productService.search("cafe", 20)).thenReturn(List.of(response));
+
+            mockMvc.perform(get("/v1/products/search").param("q", "cafe"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(expectedJson));
+
+            verify(productService).search("cafe", 20);
+        }
     }
 }
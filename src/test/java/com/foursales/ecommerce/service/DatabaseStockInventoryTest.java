@@ -0,0 +1,96 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.dto.ProductStockDTO;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseStockInventoryTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private DatabaseStockInventory databaseStockInventory;
+
+    private final UUID lowProductId = new UUID(0L, 1L);
+    private final UUID highProductId = new UUID(Long.MAX_VALUE, 1L);
+
+    @Test
+    @DisplayName("Should lock every product in one query before decrementing")
+    void shouldLockThenDecrementEveryProduct() {
+        Map<UUID, Integer> quantities = new TreeMap<>(Map.of(highProductId, 3, lowProductId, 2));
+        when(productRepository.lockStockByIdIn(quantities.keySet()))
+                .thenReturn(List.of(stock(lowProductId, 5), stock(highProductId, 3)));
+        when(productRepository.decrementStock(lowProductId, 2)).thenReturn(1);
+        when(productRepository.decrementStock(highProductId, 3)).thenReturn(1);
+
+        databaseStockInventory.decrement(quantities);
+
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).lockStockByIdIn(quantities.keySet());
+        inOrder.verify(productRepository).decrementStock(lowProductId, 2);
+        inOrder.verify(productRepository).decrementStock(highProductId, 3);
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should report a shortage before touching any product")
+    void shouldThrowBeforeDecrementingOnShortage() {
+        Map<UUID, Integer> quantities = new TreeMap<>(Map.of(highProductId, 3, lowProductId, 2));
+        when(productRepository.lockStockByIdIn(quantities.keySet()))
+                .thenReturn(List.of(stock(lowProductId, 5), stock(highProductId, 1)));
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class, () ->
+                databaseStockInventory.decrement(quantities));
+
+        assertEquals(highProductId, exception.getProductId());
+        assertEquals(1, exception.getAvailable());
+        verify(productRepository, never()).decrementStock(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should treat a product that no longer exists as out of stock")
+    void shouldThrowWhenProductIsMissing() {
+        Map<UUID, Integer> quantities = new TreeMap<>(Map.of(lowProductId, 2));
+        when(productRepository.lockStockByIdIn(quantities.keySet())).thenReturn(List.of());
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class, () ->
+                databaseStockInventory.decrement(quantities));
+
+        assertEquals(lowProductId, exception.getProductId());
+        assertEquals(0, exception.getAvailable());
+    }
+
+    private static ProductStockDTO stock(UUID id, int stockQuantity) {
+        return new ProductStockDTO() {
+
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return stockQuantity;
+            }
+        };
+    }
+}
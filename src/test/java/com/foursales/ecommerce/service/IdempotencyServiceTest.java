@@ -0,0 +1,286 @@
+package com.foursales.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.entity.IdempotencyRecord;
+import com.foursales.ecommerce.enums.OrderStatus;
+import com.foursales.ecommerce.exceptions.BusinessException;
+import com.foursales.ecommerce.exceptions.IdempotencyKeyInProgressException;
+import com.foursales.ecommerce.repository.IdempotencyRecordRepository;
+import com.foursales.ecommerce.resource.response.OrderResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private PropertiesConfig propertiesConfig;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UUID userId = UUID.randomUUID();
+    private final String key = "key-1";
+
+    private PropertiesConfig.Idempotency properties;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PropertiesConfig.Idempotency();
+        properties.setTtl(Duration.ofMinutes(10));
+        properties.setMaxEntries(100);
+        properties.setWaitTimeout(Duration.ofSeconds(5));
+        when(propertiesConfig.getIdempotency()).thenReturn(properties);
+        when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
+
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, jwtService, objectMapper,
+                propertiesConfig);
+    }
+
+    @Nested
+    class InMemory {
+
+        @Test
+        @DisplayName("Should replay the first response without executing the action again")
+        void shouldReplayFirstResponse() {
+            AtomicInteger executions = new AtomicInteger();
+            OrderResponse response = buildResponse();
+
+            OrderResponse first = idempotencyService.execute("create-order", key, "request", OrderResponse.class,
+                    () -> {
+                        executions.incrementAndGet();
+                        return response;
+                    });
+            OrderResponse replay = idempotencyService.execute("create-order", key, "request", OrderResponse.class,
+                    () -> {
+                        executions.incrementAndGet();
+                        return buildResponse();
+                    });
+
+            assertSame(first, replay);
+            assertEquals(1, executions.get());
+            verifyNoInteractions(idempotencyRecordRepository);
+        }
+
+        @Test
+        @DisplayName("Should make concurrent duplicates wait for the in-flight response")
+        void shouldWaitForInFlightResponse() throws Exception {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger executions = new AtomicInteger();
+            OrderResponse response = buildResponse();
+
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<OrderResponse> first = executor.submit(() -> idempotencyService.execute(
+                        "create-order", key, "request", OrderResponse.class, () -> {
+                            executions.incrementAndGet();
+                            started.countDown();
+                            await(release);
+                            return response;
+                        }));
+                started.await();
+                Future<OrderResponse> duplicate = executor.submit(() -> idempotencyService.execute(
+                        "create-order", key, "request", OrderResponse.class, () -> {
+                            executions.incrementAndGet();
+                            return buildResponse();
+                        }));
+
+                release.countDown();
+
+                assertSame(response, first.get());
+                assertSame(response, duplicate.get());
+                assertEquals(1, executions.get());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject a key reused with a different request")
+        void shouldRejectDifferentRequest() {
+            idempotencyService.execute("create-order", key, "request", OrderResponse.class, () -> buildResponse());
+
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    idempotencyService.execute("create-order", key, "other", OrderResponse.class,
+                            () -> buildResponse()));
+
+            assertEquals("Idempotency-Key already used with a different request: " + key, exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should tell apart requests whose hash codes collide")
+        void shouldRejectCollidingRequest() {
+            assertEquals("Aa".hashCode(), "BB".hashCode());
+            idempotencyService.execute("create-order", key, "Aa", OrderResponse.class, () -> buildResponse());
+
+            assertThrows(BusinessException.class, () ->
+                    idempotencyService.execute("create-order", key, "BB", OrderResponse.class,
+                            () -> buildResponse()));
+        }
+
+        @Test
+        @DisplayName("Should rethrow the failure of the in-flight request to a waiting duplicate")
+        void shouldRethrowInFlightFailure() throws Exception {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<OrderResponse> first = executor.submit(() -> idempotencyService.execute(
+                        "create-order", key, "request", OrderResponse.class, () -> {
+                            started.countDown();
+                            await(release);
+                            throw new BusinessException("Order already processed");
+                        }));
+                started.await();
+                FutureTask<OrderResponse> duplicate = new FutureTask<>(() -> idempotencyService.execute(
+                        "create-order", key, "request", OrderResponse.class, () -> buildResponse()));
+                Thread waiter = new Thread(duplicate);
+                waiter.start();
+                while (waiter.getState() != Thread.State.TIMED_WAITING) {
+                    Thread.onSpinWait();
+                }
+
+                release.countDown();
+
+                ExecutionException failure = assertThrows(ExecutionException.class, duplicate::get);
+                assertInstanceOf(BusinessException.class, failure.getCause());
+                assertEquals("Order already processed", failure.getCause().getMessage());
+                assertThrows(ExecutionException.class, first::get);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Should answer a duplicate with a conflict while the first request is still running")
+        void shouldReportStillProcessing() throws Exception {
+            properties.setWaitTimeout(Duration.ofMillis(50));
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                executor.submit(() -> idempotencyService.execute(
+                        "create-order", key, "request", OrderResponse.class, () -> {
+                            started.countDown();
+                            await(release);
+                            return buildResponse();
+                        }));
+                started.await();
+
+                assertThrows(IdempotencyKeyInProgressException.class, () -> idempotencyService.execute(
+                        "create-order", key, "request", OrderResponse.class, () -> buildResponse()));
+            } finally {
+                release.countDown();
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject a key that does not fit the stored id")
+        void shouldRejectOversizedKey() {
+            String oversized = "k".repeat(250);
+
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    idempotencyService.execute("create-order", oversized, "request", OrderResponse.class,
+                            () -> fail("action must not run")));
+
+            assertEquals("Idempotency-Key must be at most 205 characters", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should not remember failed executions")
+        void shouldNotRememberFailures() {
+            assertThrows(BusinessException.class, () ->
+                    idempotencyService.execute("create-order", key, "request", OrderResponse.class, () -> {
+                        throw new BusinessException("boom");
+                    }));
+
+            OrderResponse response = buildResponse();
+            OrderResponse retry = idempotencyService.execute("create-order", key, "request", OrderResponse.class,
+                    () -> response);
+
+            assertSame(response, retry);
+        }
+    }
+
+    @Nested
+    class Persistent {
+
+        @Test
+        @DisplayName("Should replay a response stored by another instance")
+        void shouldReplayStoredResponse() throws Exception {
+            properties.setPersistent(true);
+            OrderResponse stored = buildResponse();
+            IdempotencyRecord record = IdempotencyRecord.builder()
+                    .fingerprint(idempotencyService.fingerprint("request"))
+                    .response(objectMapper.writeValueAsString(stored))
+                    .build();
+            when(idempotencyRecordRepository.findByIdAndExpiresAtAfter(eq(userId + ":create-order:" + key),
+                    any(LocalDateTime.class))).thenReturn(Optional.of(record));
+
+            OrderResponse replay = idempotencyService.execute("create-order", key, "request", OrderResponse.class,
+                    () -> fail("action must not run"));
+
+            assertEquals(stored, replay);
+            verify(idempotencyRecordRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should store the first response")
+        void shouldStoreFirstResponse() {
+            properties.setPersistent(true);
+            when(idempotencyRecordRepository.findByIdAndExpiresAtAfter(any(), any())).thenReturn(Optional.empty());
+
+            idempotencyService.execute("create-order", key, "request", OrderResponse.class, () -> buildResponse());
+
+            verify(idempotencyRecordRepository).save(argThat(record ->
+                    record.getId().equals(userId + ":create-order:" + key)
+                            && record.getFingerprint().equals(idempotencyService.fingerprint("request"))));
+        }
+    }
+
+    private OrderResponse buildResponse() {
+        return new OrderResponse(UUID.randomUUID(), OrderStatus.PENDING, new BigDecimal("10.00"), List.of());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
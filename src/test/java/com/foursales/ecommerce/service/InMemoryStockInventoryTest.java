@@ -0,0 +1,144 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.dto.ProductStockDTO;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryStockInventoryTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InMemoryStockInventory inventory;
+
+    private final UUID productId = new UUID(0L, 1L);
+    private final UUID otherProductId = new UUID(0L, 2L);
+
+    @BeforeEach
+    void setUp() {
+        inventory = new InMemoryStockInventory(productRepository, productCache, meterRegistry);
+        when(productRepository.findAllStockQuantities()).thenReturn(List.of(
+                stock(productId, 5), stock(otherProductId, 1)));
+        inventory.reconcile();
+    }
+
+    @Test
+    @DisplayName("Should decrement in memory and record the pending delta")
+    void shouldDecrementInMemory() {
+        inventory.decrement(Map.of(productId, 3));
+
+        assertEquals(2, inventory.getAvailable(productId, 5));
+        assertEquals(3, inventory.getPendingUnits());
+        assertEquals(3.0, meterRegistry.get("inventory.write-behind.pending.units").gauge().value());
+        verify(productRepository, never()).decrementStock(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should restore every product when one of them is short")
+    void shouldRestoreOnShortage() {
+        assertThrows(InsufficientStockException.class, () ->
+                inventory.decrement(new TreeMap<>(Map.of(productId, 3, otherProductId, 2))));
+
+        assertEquals(5, inventory.getAvailable(productId, 5));
+        assertEquals(1, inventory.getAvailable(otherProductId, 1));
+        assertEquals(0, inventory.getPendingUnits());
+    }
+
+    @Test
+    @DisplayName("Should persist net deltas in one batch and clear the backlog")
+    void shouldFlushNetDeltas() {
+        inventory.decrement(Map.of(productId, 1));
+        inventory.decrement(Map.of(productId, 2));
+
+        int flushed = inventory.flush(100);
+
+        assertEquals(1, flushed);
+        assertEquals(0, inventory.getPendingUnits());
+        verify(productRepository).applyStockDeltas(Map.of(productId, 3), 100);
+        verify(productCache).evict(Set.of(productId));
+    }
+
+    @Test
+    @DisplayName("Should keep the backlog when persisting fails")
+    void shouldKeepBacklogWhenFlushFails() {
+        inventory.decrement(Map.of(productId, 2));
+        doThrow(new IllegalStateException("down")).when(productRepository).applyStockDeltas(anyMap(), anyInt());
+
+        assertThrows(IllegalStateException.class, () -> inventory.flush(100));
+
+        assertEquals(2, inventory.getPendingUnits());
+    }
+
+    @Test
+    @DisplayName("Should keep counting decrements in flight when the stock is reset")
+    void shouldKeepInFlightDecrementsOnReset() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inventory.decrement(Map.of(productId, 2));
+            when(productRepository.findStockQuantityById(productId)).thenReturn(Optional.of(10));
+
+            inventory.reset(productId, 10);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(8, inventory.getAvailable(productId, 10));
+        assertEquals(2, inventory.getPendingUnits());
+    }
+
+    @Test
+    @DisplayName("Should re-base on the persisted stock so a flushed delta is not counted twice")
+    void shouldResetFromPersistedStock() {
+        inventory.decrement(Map.of(productId, 3));
+        inventory.flush(100);
+        when(productRepository.findStockQuantityById(productId)).thenReturn(Optional.of(7));
+
+        inventory.reset(productId, 10);
+
+        assertEquals(7, inventory.getAvailable(productId, 7));
+        assertEquals(0, inventory.getPendingUnits());
+    }
+
+    private static ProductStockDTO stock(UUID id, int quantity) {
+        return new ProductStockDTO() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.dto.ProductStockVersionDTO;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticStockInventoryTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private OptimisticStockInventory optimisticStockInventory;
+
+    private final UUID productId = new UUID(0L, 1L);
+    private final UUID otherProductId = new UUID(0L, 2L);
+
+    @Test
+    @DisplayName("Should write the new stock of every product against the version it was read with")
+    void shouldDecrementWithVersionCheck() {
+        Map<UUID, Integer> quantities = new TreeMap<>(Map.of(productId, 2, otherProductId, 1));
+        when(productRepository.findStockVersionsByIdIn(quantities.keySet()))
+                .thenReturn(List.of(stock(productId, 5, 3L), stock(otherProductId, 1, 7L)));
+        when(productRepository.updateStockIfVersionMatches(productId, 3L, 3)).thenReturn(1);
+        when(productRepository.updateStockIfVersionMatches(otherProductId, 7L, 0)).thenReturn(1);
+
+        optimisticStockInventory.decrement(quantities);
+
+        verify(productRepository).updateStockIfVersionMatches(productId, 3L, 3);
+        verify(productRepository).updateStockIfVersionMatches(otherProductId, 7L, 0);
+    }
+
+    @Test
+    @DisplayName("Should reject the payment before writing anything when a product is short")
+    void shouldThrowInsufficientStockBeforeWriting() {
+        Map<UUID, Integer> quantities = new TreeMap<>(Map.of(productId, 2, otherProductId, 2));
+        when(productRepository.findStockVersionsByIdIn(quantities.keySet()))
+                .thenReturn(List.of(stock(productId, 5, 3L), stock(otherProductId, 1, 7L)));
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class, () ->
+                optimisticStockInventory.decrement(quantities));
+
+        assertEquals(otherProductId, exception.getProductId());
+        assertEquals(1, exception.getAvailable());
+        verify(productRepository, never()).updateStockIfVersionMatches(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should signal an optimistic lock conflict when the version changed")
+    void shouldThrowOptimisticLockFailureOnConflict() {
+        Map<UUID, Integer> quantities = Map.of(productId, 2);
+        when(productRepository.findStockVersionsByIdIn(quantities.keySet()))
+                .thenReturn(List.of(stock(productId, 5, 3L)));
+        when(productRepository.updateStockIfVersionMatches(productId, 3L, 3)).thenReturn(0);
+
+        ObjectOptimisticLockingFailureException exception = assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> optimisticStockInventory.decrement(quantities));
+
+        assertEquals(productId, exception.getIdentifier());
+    }
+
+    private static ProductStockVersionDTO stock(UUID id, int quantity, long version) {
+        return new ProductStockVersionDTO() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
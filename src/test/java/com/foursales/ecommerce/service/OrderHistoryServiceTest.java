@@ -0,0 +1,162 @@
+package com.foursales.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foursales.ecommerce.dto.OrderCursor;
+import com.foursales.ecommerce.entity.Order;
+import com.foursales.ecommerce.entity.OrderHistoryView;
+import com.foursales.ecommerce.entity.OrderItem;
+import com.foursales.ecommerce.entity.Product;
+import com.foursales.ecommerce.entity.User;
+import com.foursales.ecommerce.enums.OrderStatus;
+import com.foursales.ecommerce.mapper.CursorMapper;
+import com.foursales.ecommerce.repository.OrderHistoryViewRepository;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
+import com.foursales.ecommerce.resource.response.OrderResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderHistoryServiceTest {
+
+    @Mock
+    private OrderHistoryViewRepository orderHistoryViewRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UUID userId = UUID.randomUUID();
+    private final UUID orderId = UUID.randomUUID();
+    private final UUID productId = UUID.randomUUID();
+    private final LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private OrderHistoryService orderHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        orderHistoryService = new OrderHistoryService(orderHistoryViewRepository, objectMapper);
+    }
+
+    @Nested
+    class Record {
+
+        @Test
+        @DisplayName("Should store the order with its items as a document keyed by user and creation time")
+        @SuppressWarnings("unchecked")
+        void shouldStoreOrderDocument() throws Exception {
+            orderHistoryService.record(List.of(buildOrder()));
+
+            ArgumentCaptor<List<OrderHistoryView>> captor = ArgumentCaptor.forClass(List.class);
+            verify(orderHistoryViewRepository).saveAll(captor.capture());
+            OrderHistoryView view = captor.getValue().get(0);
+
+            assertEquals(orderId, view.getOrderId());
+            assertEquals(userId, view.getUserId());
+            assertEquals(OrderStatus.PENDING, view.getStatus());
+            assertEquals(createdAt, view.getCreatedAt());
+
+            OrderResponse document = objectMapper.readValue(view.getDocument(), OrderResponse.class);
+            assertEquals(new BigDecimal("200.00"), document.getTotalPrice());
+            assertEquals("name", document.getItems().get(0).getProductName());
+            assertEquals(new BigDecimal("100.00"), document.getItems().get(0).getPrice());
+        }
+
+        @Test
+        @DisplayName("Should not write anything when there are no orders")
+        void shouldSkipEmptyBatch() {
+            orderHistoryService.record(List.of());
+
+            verifyNoInteractions(orderHistoryViewRepository);
+        }
+    }
+
+    @Nested
+    class UpdateStatus {
+
+        @Test
+        @DisplayName("Should issue one update per target status")
+        void shouldUpdateOncePerStatus() {
+            Order paid = Order.builder().id(UUID.randomUUID()).status(OrderStatus.PAID).build();
+            Order otherPaid = Order.builder().id(UUID.randomUUID()).status(OrderStatus.PAID).build();
+            Order canceled = Order.builder().id(UUID.randomUUID()).status(OrderStatus.CANCELED).build();
+
+            orderHistoryService.updateStatus(List.of(paid, canceled, otherPaid));
+
+            verify(orderHistoryViewRepository).updateStatusByOrderIdIn(List.of(paid.getId(), otherPaid.getId()), OrderStatus.PAID);
+            verify(orderHistoryViewRepository).updateStatusByOrderIdIn(List.of(canceled.getId()), OrderStatus.CANCELED);
+            verifyNoMoreInteractions(orderHistoryViewRepository);
+        }
+    }
+
+    @Nested
+    class GetUserOrders {
+
+        @Test
+        @DisplayName("Should read documents with the current status and return the next cursor")
+        void shouldReadDocumentsWithCurrentStatus() throws Exception {
+            UUID extraId = UUID.randomUUID();
+            String document = objectMapper.writeValueAsString(
+                    new OrderResponse(orderId, OrderStatus.PENDING, new BigDecimal("200.00"), List.of()));
+            OrderHistoryView first = new OrderHistoryView(orderId, userId, OrderStatus.PAID, createdAt, document, false);
+            OrderHistoryView extra = new OrderHistoryView(extraId, userId, OrderStatus.PAID, createdAt.minusDays(1), document, false);
+
+            when(orderHistoryViewRepository.findByUserId(userId, Limit.of(2))).thenReturn(List.of(first, extra));
+
+            CursorPageResponse<OrderResponse> response = orderHistoryService.getUserOrders(userId, null, 1);
+
+            assertEquals(1, response.getSize());
+            assertTrue(response.getHasNext());
+            assertEquals(CursorMapper.toCursor(createdAt, orderId), response.getNextCursor());
+            assertEquals(orderId, response.getContent().get(0).getId());
+            assertEquals(OrderStatus.PAID, response.getContent().get(0).getStatus());
+        }
+
+        @Test
+        @DisplayName("Should continue after the given cursor")
+        void shouldContinueAfterCursor() {
+            when(orderHistoryViewRepository.findByUserIdBefore(userId, createdAt, orderId, Limit.of(11)))
+                    .thenReturn(List.of());
+
+            CursorPageResponse<OrderResponse> response = orderHistoryService.getUserOrders(
+                    userId, new OrderCursor(createdAt, orderId), 10);
+
+            assertEquals(0, response.getSize());
+            assertFalse(response.getHasNext());
+            assertNull(response.getNextCursor());
+        }
+    }
+
+    private Order buildOrder() {
+        Product product = Product.builder()
+                .id(productId)
+                .name("name")
+                .price(new BigDecimal("100.00"))
+                .build();
+        Order order = Order.builder()
+                .id(orderId)
+                .user(User.builder().id(userId).build())
+                .totalPrice(new BigDecimal("200.00"))
+                .createdAt(createdAt)
+                .build();
+        order.getItems().add(OrderItem.builder()
+                .order(order)
+                .product(product)
+                .productName("name")
+                .quantity(2)
+                .price(new BigDecimal("100.00"))
+                .build());
+        return order;
+    }
+}
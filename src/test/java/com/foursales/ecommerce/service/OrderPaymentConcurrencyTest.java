@@ -0,0 +1,202 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.config.RetryConfig;
+import com.foursales.ecommerce.entity.Order;
+import com.foursales.ecommerce.entity.OrderItem;
+import com.foursales.ecommerce.entity.Product;
+import com.foursales.ecommerce.entity.User;
+import com.foursales.ecommerce.enums.OrderStatus;
+import com.foursales.ecommerce.enums.Role;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.repository.OrderRepository;
+import com.foursales.ecommerce.repository.ProductRepository;
+import com.foursales.ecommerce.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pays orders that share products, listed in different item order, from many threads at once
+ * against a real database and checks that no payment failed on a lock and no stock was oversold.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OrderService.class, DatabaseStockInventory.class, RetryConfig.class, OptimisticLockRetryListener.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderPaymentConcurrencyTest {
+
+    private static final int PRODUCTS = 4;
+    private static final int ORDERS = 80;
+    private static final int THREADS = 16;
+    private static final int STOCK = 40;
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private StockReservationService stockReservationService;
+
+    @MockitoBean
+    private OrderHistoryService orderHistoryService;
+
+    @MockitoBean
+    private ProductCache productCache;
+
+    private final Random random = new Random(42);
+
+    private List<Product> products;
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .email("buyer@example.com")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+
+        products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(productRepository.save(Product.builder()
+                    .name("product " + i)
+                    .description("description")
+                    .price(new BigDecimal("10.00"))
+                    .category("category")
+                    .stockQuantity(STOCK)
+                    .build()));
+        }
+
+        orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(orderRepository.save(buildOrder(user)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should pay overlapping orders concurrently without deadlocks or overselling")
+    void shouldPayOverlappingOrdersWithoutDeadlockOrOversell() throws Exception {
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> payments = new ArrayList<>();
+        for (Order order : orders) {
+            payments.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.payOrder(order.getId());
+                } catch (InsufficientStockException e) {
+                    // expected once stock runs out
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> payment : payments) {
+            payment.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertTrue(failures.isEmpty(), () -> "Unexpected payment failures: " + failures);
+
+        Map<UUID, Integer> paidByProduct = new HashMap<>();
+        int paidOrders = 0;
+        for (Order order : orders) {
+            if (orderRepository.findById(order.getId()).orElseThrow().getStatus() != OrderStatus.PAID) {
+                continue;
+            }
+            paidOrders++;
+            order.getItems().forEach(item ->
+                    paidByProduct.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+        }
+
+        assertTrue(paidOrders > 0);
+        for (Product product : products) {
+            int remaining = productRepository.findStockQuantityById(product.getId()).orElseThrow();
+            int paid = paidByProduct.getOrDefault(product.getId(), 0);
+
+            assertTrue(remaining >= 0, "Stock went negative for " + product.getId());
+            assertEquals(STOCK - paid, remaining);
+        }
+    }
+
+    private Order buildOrder(User user) {
+        List<Product> shuffled = new ArrayList<>(products);
+        Collections.shuffle(shuffled, random);
+
+        Order order = Order.builder()
+                .user(user)
+                .totalPrice(BigDecimal.ZERO)
+                .build();
+        for (Product product : shuffled.subList(0, 2 + random.nextInt(PRODUCTS - 1))) {
+            order.getItems().add(OrderItem.builder()
+                    .order(order)
+                    .product(product)
+                    .productName(product.getName())
+                    .quantity(1 + random.nextInt(3))
+                    .price(product.getPrice())
+                    .build());
+        }
+        return order;
+    }
+}
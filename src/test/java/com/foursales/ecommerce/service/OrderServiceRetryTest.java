@@ -0,0 +1,166 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.config.RetryConfig;
+import com.foursales.ecommerce.entity.Order;
+import com.foursales.ecommerce.entity.OrderItem;
+import com.foursales.ecommerce.entity.Product;
+import com.foursales.ecommerce.entity.User;
+import com.foursales.ecommerce.enums.OrderStatus;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.repository.OrderItemRepository;
+import com.foursales.ecommerce.repository.OrderRepository;
+import com.foursales.ecommerce.repository.ProductRepository;
+import com.foursales.ecommerce.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(OrderServiceRetryTest.Config.class)
+@TestPropertySource(properties = {
+        "app.payment.retry.max-attempts=3",
+        "app.payment.retry.initial-delay=1",
+        "app.payment.retry.max-delay=5",
+        "app.payment.retry.multiplier=2.0"
+})
+class OrderServiceRetryTest {
+
+    @Configuration
+    @Import({RetryConfig.class, OrderService.class, OptimisticLockRetryListener.class})
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate() {
+            return new TransactionTemplate(mock(PlatformTransactionManager.class));
+        }
+    }
+
+    @MockitoBean
+    private OrderRepository orderRepository;
+
+    @MockitoBean
+    private OrderItemRepository orderItemRepository;
+
+    @MockitoBean
+    private ProductRepository productRepository;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private StockReservationService stockReservationService;
+
+    @MockitoBean
+    private StockInventory stockInventory;
+
+    @MockitoBean
+    private OrderHistoryService orderHistoryService;
+
+    @MockitoBean
+    private ProductCache productCache;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final UUID orderId = UUID.randomUUID();
+    private final UUID productId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        Product product = Product.builder().id(productId).price(new BigDecimal("10.00")).stockQuantity(5).build();
+        OrderItem item = OrderItem.builder().product(product).quantity(1).price(product.getPrice()).build();
+
+        when(orderRepository.findById(orderId)).thenAnswer(invocation -> Optional.of(Order.builder()
+                .id(orderId)
+                .user(User.builder().id(UUID.randomUUID()).build())
+                .totalPrice(product.getPrice())
+                .items(List.of(item))
+                .build()));
+    }
+
+    @Test
+    @DisplayName("Should re-read and retry the payment after an optimistic lock conflict")
+    void shouldRetryOnOptimisticLockConflict() {
+        doThrow(new ObjectOptimisticLockingFailureException(Product.class, productId))
+                .doNothing()
+                .when(stockInventory).decrement(Map.of(productId, 1));
+
+        assertEquals(OrderStatus.PAID, orderService.payOrder(orderId).getStatus());
+
+        verify(orderRepository, times(2)).findById(orderId);
+        verify(stockInventory, times(2)).decrement(Map.of(productId, 1));
+        assertEquals(1.0, meterRegistry.get("stock.optimistic-lock.conflicts")
+                .tag("product", productId.toString()).counter().count());
+    }
+
+    @Test
+    @DisplayName("Should retry the payment when it loses a deadlock or times out waiting for a row lock")
+    void shouldRetryOnLockAcquisitionFailure() {
+        doThrow(new CannotAcquireLockException("Deadlock found when trying to get lock"))
+                .doThrow(new PessimisticLockingFailureException("Lock wait timeout exceeded"))
+                .doNothing()
+                .when(stockInventory).decrement(Map.of(productId, 1));
+
+        assertEquals(OrderStatus.PAID, orderService.payOrder(orderId).getStatus());
+
+        verify(orderRepository, times(3)).findById(orderId);
+        verify(stockInventory, times(3)).decrement(Map.of(productId, 1));
+    }
+
+    @Test
+    @DisplayName("Should give up after the configured number of attempts")
+    void shouldGiveUpAfterMaxAttempts() {
+        doThrow(new ObjectOptimisticLockingFailureException(Product.class, productId))
+                .when(stockInventory).decrement(anyMap());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> orderService.payOrder(orderId));
+
+        verify(stockInventory, times(3)).decrement(anyMap());
+        assertEquals(1.0, meterRegistry.get("stock.optimistic-lock.exhausted")
+                .tag("product", productId.toString()).counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not retry business failures")
+    void shouldNotRetryBusinessFailures() {
+        doThrow(new InsufficientStockException(productId, 0)).when(stockInventory).decrement(anyMap());
+
+        assertThrows(InsufficientStockException.class, () -> orderService.payOrder(orderId));
+
+        verify(stockInventory, times(1)).decrement(anyMap());
+    }
+}
@@ -1,5 +1,10 @@
 package com.foursales.ecommerce.service;
 
+import com.foursales.ecommerce.dto.OrderExpiryBatch;
+import com.foursales.ecommerce.dto.OrderExportRowDTO;
+import com.foursales.ecommerce.dto.OrderCursor;
+import com.foursales.ecommerce.dto.OrderSearchFilter;
+import com.foursales.ecommerce.dto.OrderSearchResultDTO;
 import com.foursales.ecommerce.entity.Order;
 import com.foursales.ecommerce.entity.OrderItem;
 import com.foursales.ecommerce.entity.Product;
@@ -7,11 +12,19 @@ import com.foursales.ecommerce.entity.User;
 import com.foursales.ecommerce.enums.OrderStatus;
 import com.foursales.ecommerce.enums.ProductStatus;
 import com.foursales.ecommerce.exceptions.BusinessException;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.mapper.CursorMapper;
+import com.foursales.ecommerce.mapper.ProductMapper;
+import com.foursales.ecommerce.repository.OrderItemRepository;
 import com.foursales.ecommerce.repository.OrderRepository;
 import com.foursales.ecommerce.repository.ProductRepository;
 import com.foursales.ecommerce.repository.UserRepository;
+import com.foursales.ecommerce.resource.request.CreateOrderBatchRequest;
 import com.foursales.ecommerce.resource.request.CreateOrderRequest;
 import com.foursales.ecommerce.resource.request.OrderItemRequest;
+import com.foursales.ecommerce.resource.request.PayOrdersRequest;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
+import com.foursales.ecommerce.resource.response.OrderBatchResultResponse;
 import com.foursales.ecommerce.resource.response.OrderResponse;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,14 +35,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +61,9 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
     @Mock
     private ProductRepository productRepository;
 
@@ -47,6 +73,21 @@ class OrderServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private StockInventory stockInventory;
+
+    @Mock
+    private OrderHistoryService orderHistoryService;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -61,6 +102,8 @@ class OrderServiceTest {
     @BeforeEach
     void setUp() {
         user = User.builder().id(userId).build();
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Nested
@@ -77,8 +120,9 @@ class OrderServiceTest {
 
             when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
             when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-            when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-            when(orderRepository.save(any(Order.class))).thenReturn(order);
+            when(productCache.getAll(Set.of(productId))).thenReturn(Map.of(productId, ProductMapper.toSnapshot(product)));
+            when(productRepository.getReferenceById(productId)).thenReturn(product);
+            when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
 
             OrderResponse response = orderService.createOrder(createOrderRequest);
 
@@ -89,8 +133,11 @@ class OrderServiceTest {
 
             verify(jwtService).getAuthenticatedUserId();
             verify(userRepository).findById(userId);
-            verify(productRepository).findById(productId);
-            verify(orderRepository).save(any(Order.class));
+            verify(productCache).getAll(Set.of(productId));
+            verify(productRepository).getReferenceById(productId);
+            verify(orderRepository).saveAndFlush(any(Order.class));
+            verify(stockReservationService).reserve(order);
+            verify(orderHistoryService).record(List.of(order));
             verifyNoMoreInteractions(jwtService, userRepository, productRepository, orderRepository);
         }
 
@@ -104,7 +151,7 @@ class OrderServiceTest {
 
             when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
             when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-            when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+            when(productCache.getAll(Set.of(productId))).thenReturn(Map.of(productId, ProductMapper.toSnapshot(product)));
 
             BusinessException exception = assertThrows(BusinessException.class, () ->
                     orderService.createOrder(createOrderRequest));
@@ -113,7 +160,7 @@ class OrderServiceTest {
 
             verify(jwtService).getAuthenticatedUserId();
             verify(userRepository).findById(userId);
-            verify(productRepository).findById(productId);
+            verify(productCache).getAll(Set.of(productId));
             verifyNoMoreInteractions(jwtService, userRepository, productRepository, orderRepository);
         }
 
@@ -140,7 +187,7 @@ class OrderServiceTest {
 
             when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
             when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-            when(productRepository.findById(productId)).thenReturn(Optional.empty());
+            when(productCache.getAll(Set.of(productId))).thenReturn(Map.of());
 
             EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () ->
                     orderService.createOrder(createOrderRequest));
@@ -149,9 +196,131 @@ class OrderServiceTest {
 
             verify(jwtService).getAuthenticatedUserId();
             verify(userRepository).findById(userId);
-            verify(productRepository).findById(productId);
+            verify(productCache).getAll(Set.of(productId));
             verifyNoMoreInteractions(jwtService, userRepository, productRepository, orderRepository);
         }
+        @Test
+        @DisplayName("Should report every missing product in a single lookup")
+        void shouldReportAllMissingProductsAtOnce() {
+            UUID otherProductId = UUID.randomUUID();
+            createOrderRequest = new CreateOrderRequest(List.of(
+                    new OrderItemRequest(productId, 1),
+                    new OrderItemRequest(otherProductId, 2)));
+
+            when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(productCache.getAll(Set.of(productId, otherProductId))).thenReturn(Map.of());
+
+            EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () ->
+                    orderService.createOrder(createOrderRequest));
+
+            assertEquals("Product not found: " + productId + ", " + otherProductId, exception.getMessage());
+
+            verify(productCache).getAll(Set.of(productId, otherProductId));
+            verifyNoMoreInteractions(productRepository, orderRepository);
+        }
+
+        @Test
+        @DisplayName("Should merge repeated lines of the same product into one order item")
+        void shouldMergeRepeatedProductLines() {
+            Product product = buildProduct();
+            createOrderRequest = new CreateOrderRequest(List.of(
+                    new OrderItemRequest(productId, 1),
+                    new OrderItemRequest(productId, 2),
+                    new OrderItemRequest(productId, 3)));
+
+            when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(productCache.getAll(Set.of(productId))).thenReturn(Map.of(productId, ProductMapper.toSnapshot(product)));
+            when(productRepository.getReferenceById(productId)).thenReturn(product);
+            when(orderRepository.saveAndFlush(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            OrderResponse response = orderService.createOrder(createOrderRequest);
+
+            assertEquals(new BigDecimal("600.00"), response.getTotalPrice());
+            assertEquals(1, response.getItems().size());
+            assertEquals(6, response.getItems().get(0).getQuantity());
+            verify(productCache).getAll(Set.of(productId));
+        }
+
+        @Test
+        @DisplayName("Should throw BusinessException when the order total does not fit the price column")
+        void shouldThrowWhenTotalOverflows() {
+            Product product = buildProduct();
+            product.setPrice(new BigDecimal("99999999.99"));
+            createOrderRequest = new CreateOrderRequest(List.of(new OrderItemRequest(productId, 2)));
+
+            when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(productCache.getAll(Set.of(productId))).thenReturn(Map.of(productId, ProductMapper.toSnapshot(product)));
+            when(productRepository.getReferenceById(productId)).thenReturn(product);
+
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    orderService.createOrder(createOrderRequest));
+
+            assertEquals("Order total exceeds the maximum supported amount", exception.getMessage());
+            verifyNoInteractions(orderRepository, stockReservationService);
+        }
+    }
+
+    @Nested
+    class CreateOrders {
+
+        @Test
+        @DisplayName("Should resolve products once and report each order's result")
+        void shouldCreateValidOrdersAndReportFailures() {
+            UUID missingProductId = UUID.randomUUID();
+            Product product = buildProduct();
+            CreateOrderBatchRequest request = new CreateOrderBatchRequest(List.of(
+                    new CreateOrderRequest(List.of(new OrderItemRequest(productId, 1))),
+                    new CreateOrderRequest(List.of(new OrderItemRequest(missingProductId, 1)))));
+
+            when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(productCache.getAll(Set.of(productId, missingProductId))).thenReturn(Map.of(productId, ProductMapper.toSnapshot(product)));
+            when(productRepository.getReferenceById(productId)).thenReturn(product);
+            when(orderRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            List<OrderBatchResultResponse> results = orderService.createOrders(request);
+
+            assertEquals(2, results.size());
+            assertEquals(0, results.get(0).getIndex());
+            assertEquals(new BigDecimal("100.00"), results.get(0).getOrder().getTotalPrice());
+            assertNull(results.get(0).getError());
+            assertEquals(1, results.get(1).getIndex());
+            assertNull(results.get(1).getOrder());
+            assertEquals("Product not found: " + missingProductId, results.get(1).getError());
+
+            verify(productCache).getAll(Set.of(productId, missingProductId));
+            verify(productRepository).getReferenceById(productId);
+            verify(orderRepository).saveAllAndFlush(argThat(orders -> ((List<Order>) orders).size() == 1));
+            verify(stockReservationService).hold(any(Order.class));
+            verify(stockReservationService).record(anyList());
+            verifyNoMoreInteractions(productRepository, orderRepository);
+        }
+
+        @Test
+        @DisplayName("Should report orders whose stock cannot be reserved")
+        void shouldReportOrdersWithoutStock() {
+            Product product = buildProduct();
+            CreateOrderBatchRequest request = new CreateOrderBatchRequest(List.of(
+                    new CreateOrderRequest(List.of(new OrderItemRequest(productId, 5)))));
+
+            when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(productCache.getAll(Set.of(productId))).thenReturn(Map.of(productId, ProductMapper.toSnapshot(product)));
+            when(productRepository.getReferenceById(productId)).thenReturn(product);
+            doThrow(new InsufficientStockException(productId, 1)).when(stockReservationService).hold(any(Order.class));
+            when(orderRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            List<OrderBatchResultResponse> results = orderService.createOrders(request);
+
+            assertEquals(1, results.size());
+            assertNull(results.get(0).getOrder());
+            assertEquals(String.format("Insufficient stock for product '%s': available only %d", productId, 1),
+                    results.get(0).getError());
+            verify(orderRepository).saveAllAndFlush(List.of());
+        }
     }
 
     @Nested
@@ -165,7 +334,6 @@ class OrderServiceTest {
             Order order = buildOrder(item, product);
 
             when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-            when(productRepository.save(any())).thenReturn(product);
             when(orderRepository.save(any())).thenReturn(order);
 
             OrderResponse response = orderService.payOrder(orderId);
@@ -176,8 +344,11 @@ class OrderServiceTest {
             assertEquals(1, response.getItems().size());
 
             verify(orderRepository).findById(orderId);
-            verify(productRepository).save(any(Product.class));
+            verify(stockReservationService).confirm(order);
+            verify(stockInventory).decrement(Map.of(productId, 1));
             verify(orderRepository).save(any(Order.class));
+            verify(orderHistoryService).updateStatus(List.of(order));
+            verify(productCache).evict(Set.of(productId));
             verifyNoMoreInteractions(productRepository, orderRepository);
         }
 
@@ -219,6 +390,8 @@ class OrderServiceTest {
             Order order = buildOrder(item, product);
 
             when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+            doThrow(new InsufficientStockException(productId, product.getStockQuantity()))
+                    .when(stockInventory).decrement(Map.of(productId, 5));
             when(orderRepository.save(any())).thenReturn(order);
 
             BusinessException exception = assertThrows(BusinessException.class, () ->
@@ -231,58 +404,543 @@ class OrderServiceTest {
             assertEquals(OrderStatus.CANCELED, order.getStatus());
 
             verify(orderRepository).findById(orderId);
+            verify(stockInventory).decrement(Map.of(productId, 5));
             verify(orderRepository).save(any(Order.class));
             verifyNoMoreInteractions(productRepository, orderRepository);
         }
+
+        @Test
+        @DisplayName("Should cancel order without touching stock when reservation cannot be confirmed")
+        void shouldCancelOrderWhenReservationCannotBeConfirmed() {
+            Product product = buildProduct();
+            OrderItem item = buildOrderItem(product, 1);
+            Order order = buildOrder(item, product);
+
+            when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+            doThrow(new InsufficientStockException(productId, 0)).when(stockReservationService).confirm(order);
+
+            assertThrows(InsufficientStockException.class, () -> orderService.payOrder(orderId));
+
+            assertEquals(OrderStatus.CANCELED, order.getStatus());
+
+            verify(orderRepository).save(order);
+            verify(stockInventory, never()).decrement(anyMap());
+            verifyNoInteractions(productRepository);
+        }
     }
 
     @Nested
-    class GetUserOrders {
+    class PayOrders {
 
         @Test
-        @DisplayName("Should return orders of authenticated user")
-        void shouldReturnUserOrdersSuccessfully() {
+        @DisplayName("Should pay every order of the batch and report failures by order id")
+        void shouldPayBatchAndReportFailures() {
+            UUID missingOrderId = UUID.randomUUID();
+            UUID paidOrderId = UUID.randomUUID();
             Product product = buildProduct();
-            OrderItem item = buildOrderItem(product, 1);
-            Order order = buildOrder(item, product);
+            Order order = buildOrder(buildOrderItem(product, 1), product);
+            Order paidOrder = Order.builder().id(paidOrderId).status(OrderStatus.PAID).build();
+
+            when(orderRepository.findAllByIdIn(List.of(orderId, missingOrderId, paidOrderId)))
+                    .thenReturn(List.of(order, paidOrder));
+            when(stockInventory.getAvailable(productId, 1)).thenReturn(1);
+
+            Map<UUID, String> errors = orderService.payOrders(List.of(orderId, missingOrderId, paidOrderId));
+
+            assertEquals(Map.of(
+                    missingOrderId, "Order not found: " + missingOrderId,
+                    paidOrderId, "Order already processed: " + paidOrderId), errors);
+            assertEquals(OrderStatus.PAID, order.getStatus());
+            verify(stockReservationService).confirm(order);
+            verify(stockInventory).decrement(Map.of(productId, 1));
+            verify(orderRepository).saveAll(List.of(order));
+            verify(orderHistoryService).updateStatus(List.of(order));
+        }
+
+        @Test
+        @DisplayName("Should decrement the aggregate demand of the batch in a single call")
+        void shouldDecrementAggregateDemandOnce() {
+            UUID otherOrderId = UUID.randomUUID();
+            Product product = buildProduct();
+            product.setStockQuantity(5);
+            Order order = buildOrder(buildOrderItem(product, 2), product);
+            Order otherOrder = buildPendingOrder(otherOrderId, product, 3);
+
+            when(orderRepository.findAllByIdIn(List.of(orderId, otherOrderId))).thenReturn(List.of(order, otherOrder));
+            when(stockInventory.getAvailable(productId, 5)).thenReturn(5);
+
+            Map<UUID, String> errors = orderService.payOrders(List.of(orderId, otherOrderId));
+
+            assertTrue(errors.isEmpty());
+            assertEquals(OrderStatus.PAID, order.getStatus());
+            assertEquals(OrderStatus.PAID, otherOrder.getStatus());
+            verify(stockInventory).decrement(Map.of(productId, 5));
+            verify(stockInventory, times(1)).decrement(anyMap());
+            verify(orderRepository).saveAll(List.of(order, otherOrder));
+            verify(productCache).evict(Set.of(productId));
+        }
+
+        @Test
+        @DisplayName("Should cancel only the orders that do not fit the aggregate stock and release their reservations")
+        void shouldCancelOnlyOrdersWithoutStock() {
+            UUID otherOrderId = UUID.randomUUID();
+            Product product = buildProduct();
+            Order order = buildOrder(buildOrderItem(product, 1), product);
+            Order otherOrder = buildPendingOrder(otherOrderId, product, 1);
+
+            when(orderRepository.findAllByIdIn(List.of(orderId, otherOrderId))).thenReturn(List.of(order, otherOrder));
+            when(stockInventory.getAvailable(productId, 1)).thenReturn(1);
+
+            Map<UUID, String> errors = orderService.payOrders(List.of(orderId, otherOrderId));
+
+            assertEquals(Map.of(otherOrderId, new InsufficientStockException(productId, 0).getMessage()), errors);
+            assertEquals(OrderStatus.PAID, order.getStatus());
+            assertEquals(OrderStatus.CANCELED, otherOrder.getStatus());
+            verify(stockReservationService, never()).confirm(otherOrder);
+            verify(stockReservationService).release(otherOrder);
+            verify(stockReservationService, never()).release(order);
+            verify(stockInventory).decrement(Map.of(productId, 1));
+        }
+
+        @Test
+        @DisplayName("Should fall back to one decrement per order when stock changed concurrently")
+        void shouldFallBackWhenAggregateDecrementFails() {
+            UUID otherOrderId = UUID.randomUUID();
+            Product product = buildProduct();
+            product.setStockQuantity(2);
+            Order order = buildOrder(buildOrderItem(product, 1), product);
+            Order otherOrder = buildPendingOrder(otherOrderId, product, 1);
+
+            when(orderRepository.findAllByIdIn(List.of(orderId, otherOrderId))).thenReturn(List.of(order, otherOrder));
+            when(stockInventory.getAvailable(productId, 2)).thenReturn(2);
+            doThrow(new InsufficientStockException(productId, 1)).when(stockInventory).decrement(Map.of(productId, 2));
+            doNothing().doThrow(new InsufficientStockException(productId, 0))
+                    .when(stockInventory).decrement(Map.of(productId, 1));
+
+            Map<UUID, String> errors = orderService.payOrders(List.of(orderId, otherOrderId));
+
+            assertEquals(1, errors.size());
+            assertEquals(1, List.of(order, otherOrder).stream()
+                    .filter(o -> o.getStatus() == OrderStatus.CANCELED).count());
+            assertEquals(1, List.of(order, otherOrder).stream()
+                    .filter(o -> o.getStatus() == OrderStatus.PAID).count());
+        }
+
+        @Test
+        @DisplayName("Should report the result of each requested order by position")
+        void shouldReportResultsByPosition() {
+            UUID missingOrderId = UUID.randomUUID();
+            Product product = buildProduct();
+            Order order = buildOrder(buildOrderItem(product, 1), product);
+
+            when(orderRepository.findAllByIdIn(List.of(missingOrderId, orderId))).thenReturn(List.of(order));
+            when(stockInventory.getAvailable(productId, 1)).thenReturn(1);
+
+            List<OrderBatchResultResponse> results = orderService.payOrders(
+                    new PayOrdersRequest(List.of(missingOrderId, orderId)));
+
+            assertEquals(2, results.size());
+            assertNull(results.get(0).getOrder());
+            assertEquals("Order not found: " + missingOrderId, results.get(0).getError());
+            assertEquals(1, results.get(1).getIndex());
+            assertEquals(OrderStatus.PAID, results.get(1).getOrder().getStatus());
+            assertNull(results.get(1).getError());
+        }
+    }
+
+    @Nested
+    class PayAhead {
+
+        @Mock
+        private DetachedStockInventory detachedInventory;
+
+        @BeforeEach
+        void setUp() {
+            orderService = new OrderService(orderRepository, orderItemRepository, productRepository, jwtService,
+                    userRepository, stockReservationService, detachedInventory, orderHistoryService, productCache,
+                    transactionTemplate);
+        }
+
+        @Test
+        @DisplayName("Should take the stock before the payment transaction opens")
+        void shouldTakeStockBeforeTransaction() {
+            Product product = buildProduct();
+            Order order = buildOrder(buildOrderItem(product, 1), product);
+
+            when(orderRepository.findAllByIdIn(List.of(orderId)))
+                    .thenReturn(List.of(buildOrder(buildOrderItem(product, 1), product)));
+            when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+            OrderResponse response = orderService.payOrder(orderId);
+
+            assertEquals(OrderStatus.PAID, response.getStatus());
+            var inOrder = inOrder(detachedInventory, transactionTemplate, stockReservationService);
+            inOrder.verify(detachedInventory).decrement(Map.of(productId, 1));
+            inOrder.verify(transactionTemplate).execute(any());
+            inOrder.verify(stockReservationService).confirm(order);
+            verify(orderRepository).save(order);
+            verify(detachedInventory, never()).restore(anyMap());
+        }
+
+        @Test
+        @DisplayName("Should cancel the order in its own transaction when the stock is short")
+        void shouldCancelWhenStockIsShort() {
+            Product product = buildProduct();
+            Order order = buildOrder(buildOrderItem(product, 5), product);
+
+            when(orderRepository.findAllByIdIn(List.of(orderId)))
+                    .thenReturn(List.of(buildOrder(buildOrderItem(product, 5), product)));
+            doThrow(new InsufficientStockException(productId, 1)).when(detachedInventory).decrement(Map.of(productId, 5));
+            when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+            assertThrows(InsufficientStockException.class, () -> orderService.payOrder(orderId));
+
+            assertEquals(OrderStatus.CANCELED, order.getStatus());
+            verify(orderRepository).save(order);
+            verify(stockReservationService, never()).confirm(any());
+            verify(detachedInventory, never()).restore(anyMap());
+        }
+
+        @Test
+        @DisplayName("Should restore the stock when the order was processed in the meantime")
+        void shouldRestoreStockWhenOrderWasProcessed() {
+            Product product = buildProduct();
+            Order order = buildOrder(buildOrderItem(product, 1), product);
+            order.setStatus(OrderStatus.PAID);
 
+            when(orderRepository.findAllByIdIn(List.of(orderId)))
+                    .thenReturn(List.of(buildOrder(buildOrderItem(product, 1), product)));
+            when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+            assertThrows(BusinessException.class, () -> orderService.payOrder(orderId));
+
+            verify(detachedInventory).restore(Map.of(productId, 1));
+            verify(orderRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should settle a batch after taking its stock and restore what was not used")
+        void shouldSettleBatchAndRestoreUnusedStock() {
+            UUID otherOrderId = UUID.randomUUID();
+            Product product = buildProduct();
+            product.setStockQuantity(3);
+            Order order = buildOrder(buildOrderItem(product, 1), product);
+            Order otherOrder = buildPendingOrder(otherOrderId, product, 2);
+            otherOrder.setStatus(OrderStatus.PAID);
+
+            when(detachedInventory.getAvailable(productId, 3)).thenReturn(3);
+            when(orderRepository.findAllByIdIn(List.of(orderId, otherOrderId)))
+                    .thenReturn(List.of(buildOrder(buildOrderItem(product, 1), product),
+                            buildPendingOrder(otherOrderId, product, 2)))
+                    .thenReturn(List.of(order, otherOrder));
+
+            Map<UUID, String> errors = orderService.payOrders(List.of(orderId, otherOrderId));
+
+            assertEquals(Map.of(otherOrderId, "Order already processed: " + otherOrderId), errors);
+            assertEquals(OrderStatus.PAID, order.getStatus());
+            verify(detachedInventory).decrement(Map.of(productId, 3));
+            verify(stockReservationService).confirm(order);
+            verify(stockReservationService, never()).confirm(otherOrder);
+            verify(detachedInventory).restore(Map.of(productId, 2));
+        }
+    }
+
+    @Nested
+    class ExpirePendingOrders {
+
+        @Test
+        @DisplayName("Should release reservations and cancel stale PENDING orders in bulk")
+        void shouldExpireStalePendingOrders() {
+            LocalDateTime createdBefore = LocalDateTime.now().minusDays(1);
+            List<UUID> orderIds = List.of(orderId, UUID.randomUUID());
+
+            when(orderRepository.findIdsByStatusAndCreatedAtBefore(OrderStatus.PENDING, createdBefore, Limit.of(100)))
+                    .thenReturn(orderIds);
+            when(orderRepository.updateStatusByIdIn(orderIds, OrderStatus.PENDING, OrderStatus.CANCELED)).thenReturn(2);
+
+            OrderExpiryBatch batch = orderService.expirePendingOrders(createdBefore, 100);
+
+            assertEquals(new OrderExpiryBatch(2, 2), batch);
+            verify(stockReservationService).release(orderIds);
+            verify(orderRepository).updateStatusByIdIn(orderIds, OrderStatus.PENDING, OrderStatus.CANCELED);
+            verify(orderHistoryService).updateStatus(orderIds, OrderStatus.PENDING, OrderStatus.CANCELED);
+        }
+
+        @Test
+        @DisplayName("Should only count the orders the guarded update actually canceled")
+        void shouldCountOnlyUpdatedOrders() {
+            LocalDateTime createdBefore = LocalDateTime.now().minusDays(1);
+            List<UUID> orderIds = List.of(orderId, UUID.randomUUID());
+
+            when(orderRepository.findIdsByStatusAndCreatedAtBefore(OrderStatus.PENDING, createdBefore, Limit.of(100)))
+                    .thenReturn(orderIds);
+            when(orderRepository.updateStatusByIdIn(orderIds, OrderStatus.PENDING, OrderStatus.CANCELED)).thenReturn(1);
+
+            assertEquals(new OrderExpiryBatch(2, 1), orderService.expirePendingOrders(createdBefore, 100));
+        }
+
+        @Test
+        @DisplayName("Should do nothing when there are no stale PENDING orders")
+        void shouldDoNothingWhenNothingToExpire() {
+            LocalDateTime createdBefore = LocalDateTime.now().minusDays(1);
+
+            when(orderRepository.findIdsByStatusAndCreatedAtBefore(OrderStatus.PENDING, createdBefore, Limit.of(100)))
+                    .thenReturn(List.of());
+
+            assertEquals(new OrderExpiryBatch(0, 0), orderService.expirePendingOrders(createdBefore, 100));
+
+            verifyNoInteractions(stockReservationService);
+            verify(orderRepository, never()).updateStatusByIdIn(anyList(), any(), any());
+        }
+    }
+
+    @Nested
+    class BackfillProductNames {
+
+        @Test
+        @DisplayName("Should copy product names into the next chunk of unnamed order items")
+        void shouldBackfillChunk() {
+            List<UUID> orderItemIds = List.of(orderItemId, UUID.randomUUID());
+            when(orderItemRepository.findIdsByProductNameIsNull(Limit.of(2))).thenReturn(orderItemIds);
+
+            assertEquals(2, orderService.backfillProductNames(2));
+
+            verify(orderItemRepository).copyProductNames(orderItemIds);
+        }
+
+        @Test
+        @DisplayName("Should do nothing when every order item already has a product name")
+        void shouldDoNothingWhenNothingToBackfill() {
+            when(orderItemRepository.findIdsByProductNameIsNull(Limit.of(100))).thenReturn(List.of());
+
+            assertEquals(0, orderService.backfillProductNames(100));
+
+            verify(orderItemRepository, never()).copyProductNames(anyList());
+        }
+    }
+
+    @Nested
+    class ExportUserOrders {
+
+        @Test
+        @DisplayName("Should list every order of the authenticated user")
+        void shouldListAllUserOrders() {
+            LocalDateTime createdAt = LocalDateTime.now();
             when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
-            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-            when(orderRepository.findAllByUserId(userId)).thenReturn(List.of(order));
+            when(userRepository.existsById(userId)).thenReturn(true);
+            when(orderRepository.streamExportRowsByUserId(userId)).thenReturn(Stream.of(
+                    new OrderExportRowDTO(orderId, OrderStatus.PAID, new BigDecimal("100.00"), createdAt,
+                            productId, "name", 1, new BigDecimal("100.00"))));
+
+            List<OrderResponse> orders = orderService.getUserOrders();
+
+            assertEquals(1, orders.size());
+            assertEquals(orderId, orders.get(0).getId());
+        }
+
+        @Test
+        @DisplayName("Should group streamed rows into one order per consecutive order id")
+        void shouldGroupRowsIntoOrders() {
+            UUID otherOrderId = UUID.randomUUID();
+            LocalDateTime createdAt = LocalDateTime.now();
+            when(orderRepository.streamExportRowsByUserId(userId)).thenReturn(Stream.of(
+                    new OrderExportRowDTO(orderId, OrderStatus.PAID, new BigDecimal("300.00"), createdAt,
+                            productId, "name", 1, new BigDecimal("100.00")),
+                    new OrderExportRowDTO(orderId, OrderStatus.PAID, new BigDecimal("300.00"), createdAt,
+                            productId, "name", 2, new BigDecimal("100.00")),
+                    new OrderExportRowDTO(otherOrderId, OrderStatus.CANCELED, new BigDecimal("0.00"), createdAt,
+                            null, null, null, null)));
+
+            List<OrderResponse> exported = new ArrayList<>();
+            orderService.exportUserOrders(userId, exported::add);
+
+            assertEquals(2, exported.size());
+            assertEquals(orderId, exported.get(0).getId());
+            assertEquals(2, exported.get(0).getItems().size());
+            assertEquals(otherOrderId, exported.get(1).getId());
+            assertTrue(exported.get(1).getItems().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should throw EntityNotFoundException before exporting when user not found")
+        void shouldThrowWhenUserNotFound() {
+            when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
+            when(userRepository.existsById(userId)).thenReturn(false);
 
-            List<OrderResponse> responses = orderService.getUserOrders();
+            EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () ->
+                    orderService.getAuthenticatedUserId());
+
+            assertEquals("User not found: " + userId, exception.getMessage());
+            verifyNoInteractions(orderRepository);
+        }
+    }
 
-            assertNotNull(responses);
-            assertEquals(1, responses.size());
+    @Nested
+    class GetUserOrders {
 
+        @Test
+        @DisplayName("Should read the first page of the authenticated user from the history view")
+        void shouldReturnFirstPage() {
+            OrderResponse order = new OrderResponse(orderId, OrderStatus.PAID, new BigDecimal("100.00"), List.of());
+            CursorPageResponse<OrderResponse> page = new CursorPageResponse<>(List.of(order), 1, false, null);
+
+            when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
+            when(userRepository.existsById(userId)).thenReturn(true);
+            when(orderHistoryService.getUserOrders(userId, null, 20)).thenReturn(page);
+
+            CursorPageResponse<OrderResponse> response = orderService.getUserOrders(null, 20);
+
+            assertSame(page, response);
             verify(jwtService).getAuthenticatedUserId();
-            verify(userRepository).findById(userId);
-            verify(orderRepository).findAllByUserId(userId);
-            verifyNoMoreInteractions(jwtService, userRepository, orderRepository);
+            verify(userRepository).existsById(userId);
+            verify(orderHistoryService).getUserOrders(userId, null, 20);
+            verifyNoInteractions(orderRepository);
+        }
+
+        @Test
+        @DisplayName("Should continue after the given cursor")
+        void shouldContinueAfterCursor() {
+            LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+            String cursor = CursorMapper.toCursor(createdAt, orderId);
+            CursorPageResponse<OrderResponse> page = new CursorPageResponse<>(List.of(), 0, false, null);
+
+            when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
+            when(userRepository.existsById(userId)).thenReturn(true);
+            when(orderHistoryService.getUserOrders(userId, new OrderCursor(createdAt, orderId), 10)).thenReturn(page);
+
+            CursorPageResponse<OrderResponse> response = orderService.getUserOrders(cursor, 10);
+
+            assertEquals(0, response.getSize());
+            assertFalse(response.getHasNext());
+        }
+
+        @Test
+        @DisplayName("Should throw BusinessException when cursor is malformed")
+        void shouldThrowWhenCursorIsMalformed() {
+            when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
+            when(userRepository.existsById(userId)).thenReturn(true);
+
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    orderService.getUserOrders("not-a-cursor", 10));
+
+            assertEquals("Invalid cursor: not-a-cursor", exception.getMessage());
+            verifyNoInteractions(orderRepository);
+        }
+
+        @Test
+        @DisplayName("Should throw BusinessException when page size is out of range")
+        void shouldThrowWhenSizeIsOutOfRange() {
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    orderService.getUserOrders(null, 101));
+
+            assertEquals("Page size must be between 1 and 100", exception.getMessage());
+            verifyNoInteractions(jwtService, userRepository, orderRepository);
         }
 
         @Test
         @DisplayName("Should throw EntityNotFoundException when user not found")
         void shouldThrowWhenUserNotFound() {
             when(jwtService.getAuthenticatedUserId()).thenReturn(userId);
-            when(userRepository.findById(userId)).thenReturn(Optional.empty());
+            when(userRepository.existsById(userId)).thenReturn(false);
 
             EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () ->
-                    orderService.getUserOrders());
+                    orderService.getUserOrders(null, 20));
 
             assertEquals("User not found: " + userId, exception.getMessage());
 
             verify(jwtService).getAuthenticatedUserId();
-            verify(userRepository).findById(userId);
+            verify(userRepository).existsById(userId);
             verifyNoMoreInteractions(jwtService, userRepository, orderRepository);
         }
     }
 
+    @Nested
+    class SearchOrders {
+
+        private final OrderSearchFilter filter = new OrderSearchFilter(OrderStatus.PAID, null, null, null, null, null);
+
+        @Test
+        @DisplayName("Should fetch one extra row and return the next cursor when there are more orders")
+        void shouldReturnNextCursorWhenMoreRowsExist() {
+            LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+            OrderSearchResultDTO first = new OrderSearchResultDTO(orderId, userId, OrderStatus.PAID,
+                    new BigDecimal("100.00"), createdAt);
+            OrderSearchResultDTO extra = new OrderSearchResultDTO(UUID.randomUUID(), userId, OrderStatus.PAID,
+                    new BigDecimal("50.00"), createdAt.minusMinutes(1));
+
+            when(orderRepository.searchOrders(filter, null, 2)).thenReturn(List.of(first, extra));
+
+            CursorPageResponse<OrderSearchResultDTO> response = orderService.searchOrders(filter, null, 1);
+
+            assertEquals(List.of(first), response.getContent());
+            assertTrue(response.getHasNext());
+            assertEquals(CursorMapper.toCursor(createdAt, orderId), response.getNextCursor());
+        }
+
+        @Test
+        @DisplayName("Should continue after the given cursor")
+        void shouldContinueAfterCursor() {
+            LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+            String cursor = CursorMapper.toCursor(createdAt, orderId);
+
+            when(orderRepository.searchOrders(filter, new OrderCursor(createdAt, orderId), 21)).thenReturn(List.of());
+
+            CursorPageResponse<OrderSearchResultDTO> response = orderService.searchOrders(filter, cursor, 20);
+
+            assertEquals(0, response.getSize());
+            assertFalse(response.getHasNext());
+            assertNull(response.getNextCursor());
+        }
+
+        @Test
+        @DisplayName("Should throw BusinessException when the date range is inverted")
+        void shouldThrowWhenDateRangeIsInverted() {
+            LocalDateTime now = LocalDateTime.now();
+            OrderSearchFilter inverted = new OrderSearchFilter(null, null, now, now.minusDays(1), null, null);
+
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    orderService.searchOrders(inverted, null, 20));
+
+            assertEquals("createdFrom must not be after createdTo", exception.getMessage());
+            verifyNoInteractions(orderRepository);
+        }
+
+        @Test
+        @DisplayName("Should throw BusinessException when the total range is inverted")
+        void shouldThrowWhenTotalRangeIsInverted() {
+            OrderSearchFilter inverted = new OrderSearchFilter(null, null, null, null,
+                    new BigDecimal("200"), new BigDecimal("100"));
+
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    orderService.searchOrders(inverted, null, 20));
+
+            assertEquals("minTotal must not be greater than maxTotal", exception.getMessage());
+            verifyNoInteractions(orderRepository);
+        }
+
+        @Test
+        @DisplayName("Should throw BusinessException when page size is out of range")
+        void shouldThrowWhenSizeIsOutOfRange() {
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    orderService.searchOrders(filter, null, 0));
+
+            assertEquals("Page size must be between 1 and 100", exception.getMessage());
+            verifyNoInteractions(orderRepository);
+        }
+    }
+
     private void buildCreateOrderRequest() {
         OrderItemRequest itemRequest = new OrderItemRequest(productId, 1);
         createOrderRequest = new CreateOrderRequest(List.of(itemRequest));
     }
 
+    private Order buildPendingOrder(UUID id, Product product, int quantity) {
+        return Order.builder()
+                .id(id)
+                .items(List.of(OrderItem.builder().product(product).quantity(quantity).price(product.getPrice()).build()))
+                .build();
+    }
+
     private Product buildProduct() {
         return Product.builder()
                 .id(productId)
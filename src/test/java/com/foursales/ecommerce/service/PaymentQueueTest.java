@@ -0,0 +1,184 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.enums.PaymentStatus;
+import com.foursales.ecommerce.exceptions.PaymentQueueFullException;
+import com.foursales.ecommerce.resource.response.PaymentStatusResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentQueueTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private PropertiesConfig propertiesConfig;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID orderId = UUID.randomUUID();
+
+    private PaymentQueue paymentQueue;
+
+    @BeforeEach
+    void setUp() {
+        PropertiesConfig.Payment properties = new PropertiesConfig.Payment();
+        properties.setAsync(true);
+        properties.setQueueCapacity(1);
+        properties.setWorkers(1);
+        properties.setBatchSize(10);
+        properties.setStatusTtl(Duration.ofMinutes(10));
+        properties.setStatusMaxEntries(100);
+        properties.setShutdownTimeout(Duration.ofSeconds(5));
+        when(propertiesConfig.getPayment()).thenReturn(properties);
+
+        paymentQueue = new PaymentQueue(orderService, propertiesConfig, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        paymentQueue.stop();
+    }
+
+    @Nested
+    class Submit {
+
+        @Test
+        @DisplayName("Should enqueue the order and report it as queued")
+        void shouldEnqueueOrder() {
+            PaymentStatusResponse response = paymentQueue.submit(orderId);
+
+            assertEquals(PaymentStatus.QUEUED, response.getStatus());
+            assertEquals(response, paymentQueue.getStatus(orderId));
+            assertEquals(1.0, meterRegistry.get("payment.queue.depth").gauge().value());
+        }
+
+        @Test
+        @DisplayName("Should not enqueue the same order twice while it is queued")
+        void shouldNotEnqueueTwice() {
+            PaymentStatusResponse first = paymentQueue.submit(orderId);
+            PaymentStatusResponse second = paymentQueue.submit(orderId);
+
+            assertSame(first, second);
+            assertEquals(1.0, meterRegistry.get("payment.queue.depth").gauge().value());
+        }
+
+        @Test
+        @DisplayName("Should return the settled status instead of enqueuing a paid order again")
+        void shouldNotEnqueueSettledOrder() {
+            when(orderService.payOrders(List.of(orderId))).thenReturn(Map.of());
+            paymentQueue.process(List.of(new PaymentQueue.PaymentCommand(orderId, System.nanoTime())));
+
+            PaymentStatusResponse response = paymentQueue.submit(orderId);
+
+            assertEquals(PaymentStatus.PAID, response.getStatus());
+            assertEquals(0.0, meterRegistry.get("payment.queue.depth").gauge().value());
+        }
+
+        @Test
+        @DisplayName("Should reject payments when the queue is full")
+        void shouldRejectWhenQueueIsFull() {
+            UUID otherOrderId = UUID.randomUUID();
+            paymentQueue.submit(orderId);
+
+            assertThrows(PaymentQueueFullException.class, () -> paymentQueue.submit(otherOrderId));
+            assertThrows(EntityNotFoundException.class, () -> paymentQueue.getStatus(otherOrderId));
+            assertEquals(1.0, meterRegistry.get("payment.queue.rejected").counter().count());
+        }
+    }
+
+    @Nested
+    class Process {
+
+        @Test
+        @DisplayName("Should record paid and failed orders of a batch")
+        void shouldRecordBatchOutcome() {
+            UUID failedOrderId = UUID.randomUUID();
+            when(orderService.payOrders(List.of(orderId, failedOrderId)))
+                    .thenReturn(Map.of(failedOrderId, "Order already processed: " + failedOrderId));
+
+            paymentQueue.process(List.of(
+                    new PaymentQueue.PaymentCommand(orderId, System.nanoTime()),
+                    new PaymentQueue.PaymentCommand(failedOrderId, System.nanoTime())));
+
+            assertEquals(PaymentStatus.PAID, paymentQueue.getStatus(orderId).getStatus());
+            PaymentStatusResponse failed = paymentQueue.getStatus(failedOrderId);
+            assertEquals(PaymentStatus.FAILED, failed.getStatus());
+            assertEquals("Order already processed: " + failedOrderId, failed.getError());
+            assertEquals(2, meterRegistry.get("payment.queue.latency").timer().count());
+        }
+
+        @Test
+        @DisplayName("Should keep an order paid by an earlier attempt as paid")
+        void shouldNotOverwritePaidOrderWithFailure() {
+            when(orderService.payOrders(List.of(orderId)))
+                    .thenReturn(Map.of(orderId, "Order already processed: " + orderId));
+            when(orderService.findPaidOrderIds(Set.of(orderId))).thenReturn(List.of(orderId));
+
+            paymentQueue.process(List.of(new PaymentQueue.PaymentCommand(orderId, System.nanoTime())));
+
+            PaymentStatusResponse response = paymentQueue.getStatus(orderId);
+            assertEquals(PaymentStatus.PAID, response.getStatus());
+            assertNull(response.getError());
+        }
+
+        @Test
+        @DisplayName("Should fall back to paying one by one when the batch transaction fails")
+        void shouldFallBackToIndividualPayments() {
+            UUID failedOrderId = UUID.randomUUID();
+            when(orderService.payOrders(anyList())).thenThrow(new IllegalStateException("deadlock"));
+            when(orderService.payOrder(orderId)).thenReturn(null);
+            when(orderService.payOrder(failedOrderId)).thenThrow(new EntityNotFoundException("Order not found: " + failedOrderId));
+
+            paymentQueue.process(List.of(
+                    new PaymentQueue.PaymentCommand(orderId, System.nanoTime()),
+                    new PaymentQueue.PaymentCommand(failedOrderId, System.nanoTime())));
+
+            verify(orderService).payOrder(orderId);
+            assertEquals(PaymentStatus.PAID, paymentQueue.getStatus(orderId).getStatus());
+            assertEquals(PaymentStatus.FAILED, paymentQueue.getStatus(failedOrderId).getStatus());
+        }
+
+        @Test
+        @DisplayName("Should drain queued payments with the worker pool")
+        void shouldDrainQueueWithWorkers() {
+            when(orderService.payOrders(List.of(orderId))).thenReturn(Map.of());
+
+            paymentQueue.submit(orderId);
+            paymentQueue.start();
+
+            verify(orderService, timeout(5000)).payOrders(List.of(orderId));
+            await(() -> paymentQueue.getStatus(orderId).getStatus() == PaymentStatus.PAID);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met in time");
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.dto.ProductSnapshot;
+import com.foursales.ecommerce.entity.Product;
+import com.foursales.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PropertiesConfig propertiesConfig;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID productId = UUID.randomUUID();
+    private final UUID otherProductId = UUID.randomUUID();
+
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        PropertiesConfig.ProductCache properties = new PropertiesConfig.ProductCache();
+        properties.setMaximumSize(100);
+        properties.setTtl(Duration.ofMinutes(5));
+        when(propertiesConfig.getProductCache()).thenReturn(properties);
+
+        productCache = new ProductCache(productRepository, propertiesConfig, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Nested
+    class Get {
+
+        @Test
+        @DisplayName("Should load a product once and serve later reads from the cache")
+        void shouldReadThrough() {
+            when(productRepository.findById(productId)).thenReturn(Optional.of(buildProduct(productId, 5)));
+
+            ProductSnapshot first = productCache.get(productId).orElseThrow();
+            ProductSnapshot second = productCache.get(productId).orElseThrow();
+
+            assertSame(first, second);
+            assertEquals(5, first.stockQuantity());
+            verify(productRepository, times(1)).findById(productId);
+            assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit")
+                    .functionCounter().count());
+            assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "miss")
+                    .functionCounter().count());
+        }
+
+        @Test
+        @DisplayName("Should not cache products that do not exist")
+        void shouldNotCacheMissingProducts() {
+            when(productRepository.findById(productId)).thenReturn(Optional.empty());
+
+            assertTrue(productCache.get(productId).isEmpty());
+            assertTrue(productCache.get(productId).isEmpty());
+
+            verify(productRepository, times(2)).findById(productId);
+        }
+    }
+
+    @Nested
+    class GetAll {
+
+        @Test
+        @DisplayName("Should load only the products that are not cached yet, in one query")
+        void shouldLoadOnlyMisses() {
+            when(productRepository.findById(productId)).thenReturn(Optional.of(buildProduct(productId, 5)));
+            when(productRepository.findAllById(List.of(otherProductId)))
+                    .thenReturn(List.of(buildProduct(otherProductId, 7)));
+            productCache.get(productId);
+
+            Map<UUID, ProductSnapshot> snapshots = productCache.getAll(Set.of(productId, otherProductId));
+
+            assertEquals(Set.of(productId, otherProductId), snapshots.keySet());
+            assertEquals(7, snapshots.get(otherProductId).stockQuantity());
+            verify(productRepository).findAllById(List.of(otherProductId));
+        }
+    }
+
+    @Nested
+    class Evict {
+
+        @Test
+        @DisplayName("Should evict only after the surrounding transaction commits")
+        void shouldEvictAfterCommit() {
+            when(productRepository.findById(productId))
+                    .thenReturn(Optional.of(buildProduct(productId, 5)))
+                    .thenReturn(Optional.of(buildProduct(productId, 2)));
+            productCache.get(productId);
+
+            TransactionSynchronizationManager.initSynchronization();
+            productCache.evict(List.of(productId));
+
+            assertEquals(5, productCache.get(productId).orElseThrow().stockQuantity());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            assertEquals(2, productCache.get(productId).orElseThrow().stockQuantity());
+        }
+
+        @Test
+        @DisplayName("Should keep the cached snapshot when the transaction rolls back")
+        void shouldKeepSnapshotOnRollback() {
+            when(productRepository.findById(productId)).thenReturn(Optional.of(buildProduct(productId, 5)));
+            productCache.get(productId);
+
+            TransactionSynchronizationManager.initSynchronization();
+            productCache.evict(List.of(productId));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            productCache.get(productId);
+
+            verify(productRepository, times(1)).findById(productId);
+        }
+    }
+
+    @Nested
+    class CatalogVersion {
+
+        @Test
+        @DisplayName("Should move the catalog version only once the write commits")
+        void shouldMoveOnCommit() {
+            long before = productCache.getCatalogVersion();
+
+            TransactionSynchronizationManager.initSynchronization();
+            productCache.evict(List.of(productId));
+
+            assertEquals(before, productCache.getCatalogVersion());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            assertTrue(productCache.getCatalogVersion() > before);
+        }
+
+        @Test
+        @DisplayName("Should keep the catalog version when the write rolls back")
+        void shouldKeepOnRollback() {
+            long before = productCache.getCatalogVersion();
+
+            TransactionSynchronizationManager.initSynchronization();
+            productCache.evict(List.of(productId));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            assertEquals(before, productCache.getCatalogVersion());
+        }
+    }
+
+    private static Product buildProduct(UUID id, int stockQuantity) {
+        return Product.builder()
+                .id(id)
+                .name("name")
+                .description("description")
+                .category("category")
+                .price(new BigDecimal("10.00"))
+                .stockQuantity(stockQuantity)
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.dto.ProductSnapshot;
+import com.foursales.ecommerce.enums.ProductStatus;
+import com.foursales.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex productSearchIndex;
+
+    private final UUID coffeeId = UUID.randomUUID();
+    private final UUID mugId = UUID.randomUUID();
+    private final UUID grinderId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        productSearchIndex = new ProductSearchIndex(productRepository);
+    }
+
+    @Nested
+    class Rebuild {
+
+        @Test
+        @DisplayName("Should index every product streamed from the repository")
+        void shouldIndexStreamedProducts() {
+            when(productRepository.streamSearchSnapshots()).thenReturn(Stream.of(
+                    snapshot(coffeeId, "Café torrado", "Grãos especiais", "Mercearia"),
+                    snapshot(mugId, "Caneca", "Caneca de porcelana para café", "Cozinha")));
+
+            productSearchIndex.rebuild();
+
+            assertEquals(2, productSearchIndex.size());
+            assertEquals(List.of(coffeeId, mugId), productSearchIndex.search("cafe", 10));
+        }
+
+        @Test
+        @DisplayName("Should drop documents indexed before the rebuild")
+        void shouldReplacePreviousContents() {
+            productSearchIndex.index(snapshot(grinderId, "Moedor", "Moedor manual", "Cozinha"));
+            when(productRepository.streamSearchSnapshots()).thenReturn(Stream.of(
+                    snapshot(coffeeId, "Café torrado", "Grãos especiais", "Mercearia")));
+
+            productSearchIndex.rebuild();
+
+            assertTrue(productSearchIndex.search("moedor", 10).isEmpty());
+            assertEquals(1, productSearchIndex.size());
+        }
+    }
+
+    @Nested
+    class Search {
+
+        @BeforeEach
+        void setUp() {
+            productSearchIndex.index(snapshot(coffeeId, "Café torrado", "Grãos especiais torrados", "Mercearia"));
+            productSearchIndex.index(snapshot(mugId, "Caneca", "Caneca de porcelana para café", "Cozinha"));
+            productSearchIndex.index(snapshot(grinderId, "Moedor de café", "Moedor manual em aço", "Cozinha"));
+        }
+
+        @Test
+        @DisplayName("Should match regardless of accents and case")
+        void shouldIgnoreAccentsAndCase() {
+            assertEquals(3, productSearchIndex.search("CAFE", 10).size());
+            assertEquals(List.of(grinderId), productSearchIndex.search("aço", 10));
+        }
+
+        @Test
+        @DisplayName("Should rank name matches above description matches")
+        void shouldRankNameMatchesFirst() {
+            List<UUID> result = productSearchIndex.search("café", 10);
+
+            assertEquals(mugId, result.get(2));
+        }
+
+        @Test
+        @DisplayName("Should only return products containing every query term")
+        void shouldRequireAllTerms() {
+            assertEquals(List.of(grinderId), productSearchIndex.search("cozinha café moedor", 10));
+            assertTrue(productSearchIndex.search("café chá", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should return at most the requested number of products")
+        void shouldLimitResults() {
+            assertEquals(2, productSearchIndex.search("café", 2).size());
+        }
+
+        @Test
+        @DisplayName("Should return nothing for a query made only of stop words")
+        void shouldIgnoreStopWordQueries() {
+            assertTrue(productSearchIndex.search("de para", 10).isEmpty());
+        }
+    }
+
+    @Nested
+    class Updates {
+
+        @Test
+        @DisplayName("Should replace the terms of a product that is indexed again")
+        void shouldReplaceTermsOnUpdate() {
+            productSearchIndex.index(snapshot(coffeeId, "Café torrado", "Grãos especiais", "Mercearia"));
+            productSearchIndex.index(snapshot(coffeeId, "Chá verde", "Folhas selecionadas", "Mercearia"));
+
+            assertTrue(productSearchIndex.search("cafe", 10).isEmpty());
+            assertEquals(List.of(coffeeId), productSearchIndex.search("cha", 10));
+            assertEquals(1, productSearchIndex.size());
+        }
+
+        @Test
+        @DisplayName("Should stop returning a removed product")
+        void shouldForgetRemovedProducts() {
+            productSearchIndex.index(snapshot(coffeeId, "Café torrado", "Grãos especiais", "Mercearia"));
+
+            productSearchIndex.remove(coffeeId);
+            productSearchIndex.remove(UUID.randomUUID());
+
+            assertTrue(productSearchIndex.search("cafe", 10).isEmpty());
+            assertEquals(0, productSearchIndex.size());
+        }
+
+        @Test
+        @DisplayName("Should keep answering correctly after deleted documents are compacted")
+        void shouldSearchAfterCompaction() {
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                UUID id = UUID.randomUUID();
+                ids.add(id);
+                productSearchIndex.index(snapshot(id, "Produto " + i, "Descrição " + (i % 2 == 0 ? "par" : "impar"),
+                        "Categoria"));
+            }
+
+            for (int i = 0; i < 60; i++) {
+                productSearchIndex.remove(ids.get(i));
+            }
+            productSearchIndex.index(snapshot(ids.get(99), "Produto renomeado", "Descrição impar", "Categoria"));
+
+            assertEquals(40, productSearchIndex.size());
+            assertEquals(20, productSearchIndex.search("par", 100).size());
+            assertEquals(List.of(ids.get(99)), productSearchIndex.search("renomeado", 10));
+            assertEquals(List.of(ids.get(70)), productSearchIndex.search("produto 70", 10));
+        }
+    }
+
+    private static ProductSnapshot snapshot(UUID id, String name, String description, String category) {
+        return new ProductSnapshot(id, name, description, category, new BigDecimal("10.00"), 1, ProductStatus.ACTIVE,
+                0L, LocalDateTime.now());
+    }
+}
@@ -1,17 +1,23 @@
 package com.foursales.ecommerce.service;
 
+import com.foursales.ecommerce.dto.ProductFilter;
+import com.foursales.ecommerce.dto.ProductSnapshot;
 import com.foursales.ecommerce.entity.Product;
 import com.foursales.ecommerce.enums.ProductStatus;
+import com.foursales.ecommerce.exceptions.BusinessException;
+import com.foursales.ecommerce.mapper.CursorMapper;
 import com.foursales.ecommerce.mapper.ProductMapper;
 import com.foursales.ecommerce.repository.ProductRepository;
 import com.foursales.ecommerce.resource.request.CreateProductRequest;
 import com.foursales.ecommerce.resource.request.UpdateProductRequest;
+import com.foursales.ecommerce.resource.response.CursorPageResponse;
 import com.foursales.ecommerce.resource.response.ProductResponse;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -19,9 +25,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -34,6 +43,15 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private StockInventory stockInventory;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
     @InjectMocks
     private ProductService productService;
 
@@ -50,9 +68,11 @@ class ProductServiceTest {
         void shouldCreateProduct() {
             buildCreateProductRequest();
 
-            Product product = ProductMapper.toEntity(createProductRequest);
-
-            when(productRepository.save(any(Product.class))).thenReturn(product);
+            when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
+                Product saved = invocation.getArgument(0);
+                saved.setId(productId);
+                return saved;
+            });
 
             ProductResponse response = productService.create(createProductRequest);
 
@@ -63,6 +83,8 @@ class ProductServiceTest {
             assertEquals(createProductRequest.stockQuantity(), response.getStockQuantity());
 
             verify(productRepository).save(any(Product.class));
+            verify(productSearchIndex).index(any(ProductSnapshot.class));
+            verify(productCache).evict(List.of(productId));
             verifyNoMoreInteractions(productRepository);
         }
     }
@@ -88,6 +110,7 @@ class ProductServiceTest {
             assertEquals(updateRequest.stockQuantity(), response.getStockQuantity());
 
             verify(productRepository).findById(productId);
+            verify(productCache).evict(List.of(productId));
             verifyNoMoreInteractions(productRepository);
         }
 
@@ -121,6 +144,8 @@ class ProductServiceTest {
             assertEquals(product.getStatus(), ProductStatus.INACTIVE);
 
             verify(productRepository).findById(productId);
+            verify(productCache).evict(List.of(productId));
+            verify(productSearchIndex).remove(productId);
             verifyNoMoreInteractions(productRepository);
         }
 
@@ -149,9 +174,9 @@ class ProductServiceTest {
             Product product = buildProduct();
 
             Page<Product> productPage = new PageImpl<>(List.of(product));
-            when(productRepository.findAll(pageable)).thenReturn(productPage);
+            when(productRepository.findAll(ArgumentMatchers.<Specification<Product>>any(), eq(pageable))).thenReturn(productPage);
 
-            Page<ProductResponse> result = productService.findAll(pageable);
+            Page<ProductResponse> result = productService.findAll(new ProductFilter(null, null, null), pageable);
 
             assertNotNull(result);
             assertEquals(1, result.getTotalElements());
@@ -163,9 +188,109 @@ class ProductServiceTest {
             assertEquals(product.getCategory(), response.getCategory());
             assertEquals(product.getStockQuantity(), response.getStockQuantity());
 
-            verify(productRepository).findAll(pageable);
+            verify(productRepository).findAll(ArgumentMatchers.<Specification<Product>>any(), eq(pageable));
             verifyNoMoreInteractions(productRepository);
         }
+
+        @Test
+        @DisplayName("Should reject a price range whose minimum is above its maximum")
+        void shouldRejectInvertedPriceRange() {
+            ProductFilter filter = new ProductFilter(null, new BigDecimal("100.00"), new BigDecimal("10.00"));
+
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productService.findAll(filter, PageRequest.of(0, 10)));
+
+            assertEquals("minPrice must not be greater than maxPrice", exception.getMessage());
+            verifyNoInteractions(productRepository);
+        }
+    }
+
+    @Nested
+    class FindAllAfter {
+
+        private final ProductFilter noFilter = new ProductFilter(null, null, null);
+
+        @Test
+        @DisplayName("Should return a page and a cursor to the last product when more rows exist")
+        void shouldReturnNextCursor() {
+            Product first = buildProduct();
+            Product second = buildProduct();
+            Product extra = buildProduct();
+            when(productRepository.findBy(ArgumentMatchers.<Specification<Product>>any(), any())).thenReturn(List.of(first, second, extra));
+
+            CursorPageResponse<ProductResponse> result = productService.findAllAfter(noFilter, null, 2);
+
+            assertEquals(2, result.getSize());
+            assertTrue(result.getHasNext());
+            assertEquals(CursorMapper.toCursor(second.getName(), second.getId()), result.getNextCursor());
+            verify(productRepository, never()).count(ArgumentMatchers.<Specification<Product>>any());
+        }
+
+        @Test
+        @DisplayName("Should return no cursor on the last page")
+        void shouldReturnNoCursorOnLastPage() {
+            when(productRepository.findBy(ArgumentMatchers.<Specification<Product>>any(), any())).thenReturn(List.of(buildProduct()));
+
+            CursorPageResponse<ProductResponse> result = productService.findAllAfter(
+                    noFilter, CursorMapper.toCursor("Laptop", UUID.randomUUID()), 2);
+
+            assertEquals(1, result.getSize());
+            assertFalse(result.getHasNext());
+            assertNull(result.getNextCursor());
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed cursor")
+        void shouldRejectInvalidCursor() {
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productService.findAllAfter(noFilter, "not-a-cursor", 20));
+
+            assertEquals("Invalid cursor: not-a-cursor", exception.getMessage());
+            verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a page size outside the allowed range")
+        void shouldRejectInvalidSize() {
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productService.findAllAfter(noFilter, null, 0));
+
+            assertEquals("Page size must be between 1 and 100", exception.getMessage());
+            verifyNoInteractions(productRepository);
+        }
+    }
+
+    @Nested
+    class ETags {
+
+        @Test
+        @DisplayName("Should derive the product ETag from the cached snapshot without hitting the database")
+        void shouldDeriveProductETagFromCache() {
+            Product product = buildProduct();
+            product.setVersion(3L);
+            product.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0, 0, 123_456_000));
+            when(productCache.get(productId)).thenReturn(Optional.of(ProductMapper.toSnapshot(product)));
+
+            assertEquals("\"3-1704067200123456\"", productService.getETag(productId));
+            verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("Should throw EntityNotFoundException when there is no product to tag")
+        void shouldThrowWhenProductNotFound() {
+            when(productCache.get(productId)).thenReturn(Optional.empty());
+
+            assertThrows(EntityNotFoundException.class, () -> productService.getETag(productId));
+        }
+
+        @Test
+        @DisplayName("Should derive the catalog ETag from the committed catalog version")
+        void shouldDeriveCatalogETag() {
+            when(productCache.getCatalogVersion()).thenReturn(1704067200000000L);
+
+            assertEquals("\"catalog-1704067200000000\"", productService.getCatalogETag());
+            verifyNoInteractions(productRepository);
+        }
     }
 
     @Nested
@@ -176,7 +301,7 @@ class ProductServiceTest {
         void shouldReturnProductResponse() {
             Product product = buildProduct();
 
-            when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+            when(productCache.get(productId)).thenReturn(Optional.of(ProductMapper.toSnapshot(product)));
 
             ProductResponse response = productService.findById(productId);
 
@@ -186,22 +311,80 @@ class ProductServiceTest {
             assertEquals(product.getCategory(), response.getCategory());
             assertEquals(product.getStockQuantity(), response.getStockQuantity());
 
-            verify(productRepository).findById(productId);
-            verifyNoMoreInteractions(productRepository);
+            verify(productCache).get(productId);
+            verifyNoInteractions(productRepository);
         }
 
         @Test
         @DisplayName("Should throw EntityNotFoundException when product not found")
         void shouldThrowWhenProductNotFound() {
-            when(productRepository.findById(productId)).thenReturn(Optional.empty());
+            when(productCache.get(productId)).thenReturn(Optional.empty());
 
             EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                     () -> productService.findById(productId));
 
             assertEquals("Product not found: " + productId, exception.getMessage());
 
-            verify(productRepository).findById(productId);
-            verifyNoMoreInteractions(productRepository);
+            verify(productCache).get(productId);
+            verifyNoInteractions(productRepository);
+        }
+    }
+
+    @Nested
+    class Search {
+
+        @Test
+        @DisplayName("Should return matching products in ranking order")
+        void shouldReturnProductsInRankingOrder() {
+            Product first = buildProduct();
+            Product second = buildProduct();
+            List<UUID> ranked = List.of(second.getId(), first.getId());
+
+            when(productSearchIndex.search("laptop", 10)).thenReturn(ranked);
+            when(productCache.getAll(ranked)).thenReturn(Map.of(
+                    first.getId(), ProductMapper.toSnapshot(first),
+                    second.getId(), ProductMapper.toSnapshot(second)));
+
+            List<ProductResponse> result = productService.search("laptop", 10);
+
+            assertEquals(List.of(second.getId(), first.getId()), result.stream().map(ProductResponse::getId).toList());
+            verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("Should skip products that disappeared after being indexed")
+        void shouldSkipMissingProducts() {
+            Product product = buildProduct();
+            UUID removedId = UUID.randomUUID();
+            List<UUID> ranked = List.of(removedId, product.getId());
+
+            when(productSearchIndex.search("laptop", 10)).thenReturn(ranked);
+            when(productCache.getAll(ranked)).thenReturn(Map.of(product.getId(), ProductMapper.toSnapshot(product)));
+
+            List<ProductResponse> result = productService.search("laptop", 10);
+
+            assertEquals(1, result.size());
+            assertEquals(product.getId(), result.get(0).getId());
+        }
+
+        @Test
+        @DisplayName("Should not touch the cache when nothing matches")
+        void shouldReturnEmptyWhenNothingMatches() {
+            when(productSearchIndex.search("tablet", 10)).thenReturn(List.of());
+
+            assertTrue(productService.search("tablet", 10).isEmpty());
+
+            verifyNoInteractions(productCache);
+        }
+
+        @Test
+        @DisplayName("Should reject a page size outside the allowed range")
+        void shouldRejectInvalidSize() {
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productService.search("laptop", 101));
+
+            assertEquals("Page size must be between 1 and 100", exception.getMessage());
+            verifyNoInteractions(productSearchIndex);
         }
     }
 
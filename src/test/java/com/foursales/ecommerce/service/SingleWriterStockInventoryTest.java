@@ -0,0 +1,156 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SingleWriterStockInventoryTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PropertiesConfig propertiesConfig;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID productId = new UUID(0L, 1L);
+    private final UUID otherProductId = new UUID(0L, 2L);
+
+    private SingleWriterStockInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        PropertiesConfig.Inventory properties = new PropertiesConfig.Inventory();
+        properties.setWriterPartitions(2);
+        properties.setWriterBatchSize(16);
+        properties.setWriterTimeout(Duration.ofSeconds(5));
+        when(propertiesConfig.getInventory()).thenReturn(properties);
+
+        inventory = new SingleWriterStockInventory(productRepository, transactionManager, propertiesConfig, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        inventory.stop();
+    }
+
+    @Nested
+    class Apply {
+
+        @Test
+        @DisplayName("Should coalesce consecutive decrements of a product into one update")
+        void shouldCoalesceDecrements() {
+            List<SingleWriterStockInventory.StockCommand> batch = List.of(
+                    new SingleWriterStockInventory.StockCommand(productId, 1, true),
+                    new SingleWriterStockInventory.StockCommand(productId, 2, true),
+                    new SingleWriterStockInventory.StockCommand(productId, 3, true));
+            when(productRepository.decrementStock(productId, 6)).thenReturn(1);
+
+            inventory.apply(batch);
+
+            verify(productRepository).decrementStock(productId, 6);
+            verifyNoMoreInteractions(productRepository);
+            batch.forEach(command -> assertTrue(command.result().join()));
+            assertEquals(1.0, meterRegistry.get("inventory.single-writer.updates").counter().count());
+        }
+
+        @Test
+        @DisplayName("Should apply decrements one by one when the merged amount does not fit")
+        void shouldFallBackToIndividualDecrements() {
+            SingleWriterStockInventory.StockCommand first = new SingleWriterStockInventory.StockCommand(productId, 2, true);
+            SingleWriterStockInventory.StockCommand second = new SingleWriterStockInventory.StockCommand(productId, 3, true);
+            when(productRepository.decrementStock(productId, 5)).thenReturn(0);
+            when(productRepository.decrementStock(productId, 2)).thenReturn(1);
+            when(productRepository.decrementStock(productId, 3)).thenReturn(0);
+
+            inventory.apply(List.of(first, second));
+
+            assertTrue(first.result().join());
+            assertFalse(second.result().join());
+        }
+
+        @Test
+        @DisplayName("Should keep increments in order between decrement runs")
+        void shouldKeepIncrementsInOrder() {
+            when(productRepository.decrementStock(productId, 3)).thenReturn(1);
+            when(productRepository.decrementStock(productId, 4)).thenReturn(1);
+
+            inventory.apply(List.of(
+                    new SingleWriterStockInventory.StockCommand(productId, 3, true),
+                    new SingleWriterStockInventory.StockCommand(productId, 1, false),
+                    new SingleWriterStockInventory.StockCommand(productId, 4, true)));
+
+            var inOrder = inOrder(productRepository);
+            inOrder.verify(productRepository).decrementStock(productId, 3);
+            inOrder.verify(productRepository).incrementStock(productId, 1);
+            inOrder.verify(productRepository).decrementStock(productId, 4);
+        }
+    }
+
+    @Nested
+    class Decrement {
+
+        @Test
+        @DisplayName("Should decrement every product through its writer")
+        void shouldDecrementThroughWriters() {
+            when(productRepository.decrementStock(productId, 2)).thenReturn(1);
+            when(productRepository.decrementStock(otherProductId, 1)).thenReturn(1);
+
+            inventory.decrement(new TreeMap<>(Map.of(productId, 2, otherProductId, 1)));
+
+            verify(productRepository).decrementStock(productId, 2);
+            verify(productRepository).decrementStock(otherProductId, 1);
+        }
+
+        @Test
+        @DisplayName("Should restore applied decrements and reject when a product is short")
+        void shouldRestoreAndRejectWhenShort() {
+            when(productRepository.decrementStock(productId, 2)).thenReturn(1);
+            when(productRepository.decrementStock(otherProductId, 5)).thenReturn(0);
+            when(productRepository.findStockQuantityById(otherProductId)).thenReturn(Optional.of(1));
+
+            InsufficientStockException exception = assertThrows(InsufficientStockException.class, () ->
+                    inventory.decrement(new TreeMap<>(Map.of(productId, 2, otherProductId, 5))));
+
+            assertEquals(otherProductId, exception.getProductId());
+            assertEquals(1, exception.getAvailable());
+            verify(productRepository, timeout(5000)).incrementStock(productId, 2);
+        }
+    }
+
+    @Nested
+    class Restore {
+
+        @Test
+        @DisplayName("Should give stock back through the writers")
+        void shouldRestoreThroughWriters() {
+            inventory.restore(Map.of(productId, 2));
+
+            verify(productRepository, timeout(5000)).incrementStock(productId, 2);
+        }
+    }
+}
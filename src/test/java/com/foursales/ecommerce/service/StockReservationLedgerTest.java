@@ -0,0 +1,48 @@
+package com.foursales.ecommerce.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockReservationLedgerTest {
+
+    private final StockReservationLedger ledger = new StockReservationLedger();
+    private final UUID productId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should reserve while the reserved total fits the stock")
+    void shouldReserveWithinStock() {
+        assertTrue(ledger.tryReserve(productId, 3, 5));
+        assertTrue(ledger.tryReserve(productId, 2, 5));
+        assertFalse(ledger.tryReserve(productId, 1, 5));
+
+        assertEquals(5, ledger.getReserved(productId));
+    }
+
+    @Test
+    @DisplayName("Should free reserved quantity on release")
+    void shouldReleaseReservedQuantity() {
+        ledger.tryReserve(productId, 4, 5);
+
+        ledger.release(productId, 3);
+
+        assertEquals(1, ledger.getReserved(productId));
+        assertTrue(ledger.tryReserve(productId, 4, 5));
+    }
+
+    @Test
+    @DisplayName("Should replace every reservation on reset")
+    void shouldReplaceReservationsOnReset() {
+        ledger.tryReserve(productId, 4, 5);
+        UUID otherProductId = UUID.randomUUID();
+
+        ledger.reset(Map.of(otherProductId, 2));
+
+        assertEquals(0, ledger.getReserved(productId));
+        assertEquals(2, ledger.getReserved(otherProductId));
+    }
+}
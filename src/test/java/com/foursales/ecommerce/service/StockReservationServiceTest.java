@@ -0,0 +1,197 @@
+package com.foursales.ecommerce.service;
+
+import com.foursales.ecommerce.config.PropertiesConfig;
+import com.foursales.ecommerce.entity.Order;
+import com.foursales.ecommerce.entity.OrderItem;
+import com.foursales.ecommerce.entity.Product;
+import com.foursales.ecommerce.entity.StockReservation;
+import com.foursales.ecommerce.exceptions.InsufficientStockException;
+import com.foursales.ecommerce.mapper.ProductMapper;
+import com.foursales.ecommerce.repository.StockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Spy
+    private StockReservationLedger stockReservationLedger;
+
+    @Mock
+    private StockInventory stockInventory;
+
+    @Mock
+    private PropertiesConfig propertiesConfig;
+
+    @Mock
+    private ProductCache productCache;
+
+    @InjectMocks
+    private StockReservationService stockReservationService;
+
+    private final UUID orderId = UUID.randomUUID();
+    private final UUID productId = UUID.randomUUID();
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        Product product = Product.builder().id(productId).stockQuantity(5).build();
+        OrderItem item = OrderItem.builder().product(product).quantity(3).build();
+        order = Order.builder().id(orderId).items(List.of(item)).build();
+
+        lenient().when(productCache.getAll(Set.of(productId)))
+                .thenReturn(Map.of(productId, ProductMapper.toSnapshot(product)));
+        lenient().when(stockInventory.getAvailable(any(UUID.class), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    @Nested
+    class Reserve {
+
+        @Test
+        @DisplayName("Should reserve quantities in the ledger and persist them")
+        void shouldReserveAndPersist() {
+            PropertiesConfig.Reservation reservation = new PropertiesConfig.Reservation();
+            reservation.setTtl(Duration.ofMinutes(15));
+            when(propertiesConfig.getReservation()).thenReturn(reservation);
+
+            stockReservationService.reserve(order);
+
+            assertEquals(3, stockReservationLedger.getReserved(productId));
+            verify(stockReservationRepository).saveAll(argThat(reservations -> {
+                StockReservation saved = reservations.iterator().next();
+                return saved.getOrderId().equals(orderId)
+                        && saved.getProductId().equals(productId)
+                        && saved.getQuantity() == 3
+                        && saved.getExpiresAt().isAfter(LocalDateTime.now());
+            }));
+        }
+
+        @Test
+        @DisplayName("Should throw InsufficientStockException when stock is already reserved")
+        void shouldThrowWhenStockAlreadyReserved() {
+            stockReservationLedger.tryReserve(productId, 4, 5);
+
+            InsufficientStockException exception = assertThrows(InsufficientStockException.class, () ->
+                    stockReservationService.reserve(order));
+
+            assertEquals(1, exception.getAvailable());
+            assertEquals(4, stockReservationLedger.getReserved(productId));
+            verifyNoInteractions(stockReservationRepository);
+        }
+    }
+
+    @Nested
+    class Confirm {
+
+        @Test
+        @DisplayName("Should delete reservations and release them from the ledger")
+        void shouldConvertReservations() {
+            stockReservationLedger.tryReserve(productId, 3, 5);
+            StockReservation reservation = StockReservation.builder()
+                    .id(UUID.randomUUID()).orderId(orderId).productId(productId).quantity(3).build();
+            when(stockReservationRepository.findAllByOrderId(orderId)).thenReturn(List.of(reservation));
+            when(stockReservationRepository.removeById(reservation.getId())).thenReturn(1);
+
+            stockReservationService.confirm(order);
+
+            assertEquals(0, stockReservationLedger.getReserved(productId));
+            verify(stockReservationRepository).removeById(reservation.getId());
+        }
+
+        @Test
+        @DisplayName("Should respect other reservations when the order has none")
+        void shouldRespectOtherReservationsWithoutOwnReservation() {
+            stockReservationLedger.tryReserve(productId, 3, 5);
+            when(stockReservationRepository.findAllByOrderId(orderId)).thenReturn(List.of());
+
+            assertThrows(InsufficientStockException.class, () -> stockReservationService.confirm(order));
+
+            assertEquals(3, stockReservationLedger.getReserved(productId));
+            verify(stockReservationRepository, never()).removeById(any());
+        }
+    }
+
+    @Nested
+    class ReleaseByOrderIds {
+
+        @Test
+        @DisplayName("Should remove reservations of all given orders and release the ledger")
+        void shouldReleaseReservationsOfOrders() {
+            stockReservationLedger.tryReserve(productId, 3, 5);
+            StockReservation reservation = StockReservation.builder()
+                    .id(UUID.randomUUID()).orderId(orderId).productId(productId).quantity(3).build();
+            when(stockReservationRepository.findAllByOrderIdIn(List.of(orderId))).thenReturn(List.of(reservation));
+            when(stockReservationRepository.removeById(reservation.getId())).thenReturn(1);
+
+            stockReservationService.release(List.of(orderId));
+
+            assertEquals(0, stockReservationLedger.getReserved(productId));
+            verify(stockReservationRepository).removeById(reservation.getId());
+        }
+
+        @Test
+        @DisplayName("Should release a reservation once when two removals race on it")
+        void shouldReleaseOnceWhenRemovalsRace() {
+            stockReservationLedger.tryReserve(productId, 3, 5);
+            stockReservationLedger.tryReserve(productId, 2, 5);
+            StockReservation reservation = StockReservation.builder()
+                    .id(UUID.randomUUID()).orderId(orderId).productId(productId).quantity(3).build();
+            when(stockReservationRepository.findAllByOrderIdIn(List.of(orderId))).thenReturn(List.of(reservation));
+            when(stockReservationRepository.findAllByExpiresAtLessThanEqualOrderByExpiresAt(
+                    any(LocalDateTime.class), eq(Limit.of(10)))).thenReturn(List.of(reservation));
+            when(stockReservationRepository.removeById(reservation.getId())).thenReturn(1, 0);
+
+            stockReservationService.release(List.of(orderId));
+            int expired = stockReservationService.releaseExpired(10);
+
+            assertEquals(0, expired);
+            assertEquals(2, stockReservationLedger.getReserved(productId));
+        }
+    }
+
+    @Nested
+    class ReleaseExpired {
+
+        @Test
+        @DisplayName("Should remove a batch of expired reservations")
+        void shouldReleaseExpiredBatch() {
+            stockReservationLedger.tryReserve(productId, 3, 5);
+            StockReservation reservation = StockReservation.builder()
+                    .id(UUID.randomUUID()).orderId(orderId).productId(productId).quantity(3).build();
+            when(stockReservationRepository.findAllByExpiresAtLessThanEqualOrderByExpiresAt(
+                    any(LocalDateTime.class), eq(Limit.of(10)))).thenReturn(List.of(reservation));
+            when(stockReservationRepository.removeById(reservation.getId())).thenReturn(1);
+
+            int released = stockReservationService.releaseExpired(10);
+
+            assertEquals(1, released);
+            assertEquals(0, stockReservationLedger.getReserved(productId));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.foursales.ecommerce.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Nested
+    class Conversion {
+
+        @Test
+        @DisplayName("Should convert decimal amounts to cents and back")
+        void shouldRoundTrip() {
+            assertEquals(12345, Money.toCents(new BigDecimal("123.45")));
+            assertEquals(100, Money.toCents(BigDecimal.ONE));
+            assertEquals(new BigDecimal("123.45"), Money.toDecimal(12345));
+            assertEquals(new BigDecimal("0.05"), Money.toDecimal(5));
+        }
+
+        @Test
+        @DisplayName("Should round amounts with more than two decimals half-even")
+        void shouldRoundHalfEven() {
+            assertEquals(1002, Money.toCents(new BigDecimal("10.025")));
+            assertEquals(1004, Money.toCents(new BigDecimal("10.035")));
+        }
+
+        @Test
+        @DisplayName("Should reject amounts outside the DECIMAL(10,2) range")
+        void shouldRejectOutOfRange() {
+            assertEquals(new BigDecimal("99999999.99"), Money.toDecimal(Money.MAX_CENTS));
+            assertThrows(ArithmeticException.class, () -> Money.toDecimal(Money.MAX_CENTS + 1));
+            assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("1e30")));
+        }
+    }
+
+    @Nested
+    class Arithmetic {
+
+        @Test
+        @DisplayName("Should multiply and add cents exactly")
+        void shouldComputeExactly() {
+            assertEquals(3003, Money.plus(Money.times(1001, 3), 0));
+            assertEquals(30, Money.plus(10, 20));
+        }
+
+        @Test
+        @DisplayName("Should fail instead of overflowing")
+        void shouldFailOnOverflow() {
+            assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+            assertThrows(ArithmeticException.class, () -> Money.plus(Long.MAX_VALUE, 1));
+        }
+    }
+}
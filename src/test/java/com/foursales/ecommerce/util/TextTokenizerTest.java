@@ -0,0 +1,32 @@
+package com.foursales.ecommerce.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextTokenizerTest {
+
+    @Test
+    @DisplayName("Should fold accents and lower-case every term")
+    void shouldFoldAccents() {
+        assertEquals(List.of("cafe", "acucar", "pao"), TextTokenizer.tokenize("Café AÇÚCAR pão"));
+    }
+
+    @Test
+    @DisplayName("Should split on punctuation and drop stop words")
+    void shouldSplitAndDropStopWords() {
+        assertEquals(List.of("notebook", "gamer", "16gb", "ram"),
+                TextTokenizer.tokenize("Notebook gamer, com 16GB de RAM!"));
+    }
+
+    @Test
+    @DisplayName("Should return no terms for blank or missing text")
+    void shouldHandleBlankText() {
+        assertTrue(TextTokenizer.tokenize(null).isEmpty());
+        assertTrue(TextTokenizer.tokenize("   ").isEmpty());
+        assertTrue(TextTokenizer.tokenize("de da do").isEmpty());
+    }
+}